@@ -1,13 +1,53 @@
 package com.example.carrestservice;
 
+import com.example.carrestservice.batch.CarImportResult;
+import com.example.carrestservice.service.CarImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@EnableScheduling
 @SpringBootApplication
 public class CarRestServiceApplication {
 
+	static final String IMPORT_CARS_OPTION = "import-cars";
+
+	private static final Logger log = LoggerFactory.getLogger(CarRestServiceApplication.class);
+
 	public static void main(String[] args) {
 		SpringApplication.run(CarRestServiceApplication.class, args);
 	}
 
+	@Bean
+	public ApplicationRunner carImportRunner(CarImportService carImportService, ConfigurableApplicationContext applicationContext) {
+		return args -> {
+
+			if (!args.containsOption(IMPORT_CARS_OPTION)) {
+				return;
+			}
+
+			for (String file : args.getOptionValues(IMPORT_CARS_OPTION)) {
+				try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+					CarImportResult result = carImportService.importCars(reader);
+					log.info("Imported {}: {} rows, {} inserted, {} updated, {} rejected, {} rows/s",
+							file, result.getTotalRows(), result.getInsertedRows(), result.getUpdatedRows(), result.getRejectedRows(), result.getRowsPerSecond());
+					result.getRejections().forEach(rejection ->
+							log.warn("Rejected row {} of {}: {}", rejection.getRowNumber(), file, rejection.getReason()));
+				}
+			}
+
+			System.exit(SpringApplication.exit(applicationContext));
+		};
+	}
+
 }
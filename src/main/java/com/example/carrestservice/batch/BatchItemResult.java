@@ -0,0 +1,30 @@
+package com.example.carrestservice.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BatchItemResult<T> {
+
+    private int index;
+
+    private BatchItemStatus status;
+
+    private T item;
+
+    private String message;
+
+    public static <T> BatchItemResult<T> created(int index, T item) {
+        return new BatchItemResult<>(index, BatchItemStatus.CREATED, item, null);
+    }
+
+    public static <T> BatchItemResult<T> conflict(int index, T item, String message) {
+        return new BatchItemResult<>(index, BatchItemStatus.CONFLICT, item, message);
+    }
+
+    public static <T> BatchItemResult<T> invalid(int index, String message) {
+        return new BatchItemResult<>(index, BatchItemStatus.INVALID, null, message);
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.example.carrestservice.batch;
+
+public enum BatchItemStatus {
+
+    CREATED,
+
+    CONFLICT,
+
+    INVALID
+
+}
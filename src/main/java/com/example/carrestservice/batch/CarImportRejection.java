@@ -0,0 +1,14 @@
+package com.example.carrestservice.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CarImportRejection {
+
+    private long rowNumber;
+
+    private String reason;
+
+}
@@ -0,0 +1,26 @@
+package com.example.carrestservice.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CarImportResult {
+
+    private long totalRows;
+
+    private long insertedRows;
+
+    private long updatedRows;
+
+    private long rejectedRows;
+
+    private List<CarImportRejection> rejections;
+
+    private long elapsedMillis;
+
+    private long rowsPerSecond;
+
+}
@@ -0,0 +1,31 @@
+package com.example.carrestservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(EntityCacheProperties entityCacheProperties, CacheInvalidationBus cacheInvalidationBus, MeterRegistry meterRegistry) {
+
+        CaffeineCacheManager caffeineCacheManager = new InvalidatingCaffeineCacheManager(cacheInvalidationBus, meterRegistry);
+        caffeineCacheManager.setCaffeine(Caffeine.from(entityCacheProperties.getDefaultSpec()).recordStats());
+
+        entityCacheProperties.getSpecs().forEach((cacheName, spec) ->
+                caffeineCacheManager.registerCustomCache(cacheName, Caffeine.from(spec).recordStats().build()));
+
+        // Evictions issued inside a transaction are applied, and published to the other replicas, only after it commits.
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.carrestservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Payload of an invalidation notification. A {@code null} key invalidates the whole cache.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    private String nodeId;
+
+    private String cacheName;
+
+    private Long key;
+
+    private long publishedAt;
+
+}
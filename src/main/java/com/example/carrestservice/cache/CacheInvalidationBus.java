@@ -0,0 +1,190 @@
+package com.example.carrestservice.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the in-process caches of all replicas coherent. Every local invalidation is published on a PostgreSQL
+ * notification channel and every replica evicts the same entries when it receives it.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "car_rest_service_cache_invalidation";
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final int MAX_PENDING_PUBLICATIONS = 10_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, Consumer<Long>> subscribers = new ConcurrentHashMap<>();
+
+    private final Map<String, List<Consumer<Long>>> listeners = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<CacheInvalidation> pendingPublications = new LinkedBlockingQueue<>(MAX_PENDING_PUBLICATIONS);
+
+    private volatile boolean publishing;
+
+    private ObjectMapper objectMapper;
+    private Timer lag;
+    private Counter received;
+    private Counter flushes;
+    private Counter publishFailures;
+
+    public CacheInvalidationBus(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Time between publishing an invalidation on one replica and applying it on another")
+                .register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("Invalidations received from other replicas")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("cache.invalidation.flushes")
+                .description("Full flushes of all local caches after (re)connecting to the notification channel")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("cache.invalidation.publish.failures")
+                .description("Invalidations that could not be published to other replicas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers how a local cache evicts an entry, or everything when the key is {@code null}.
+     */
+    public void subscribe(String cacheName, Consumer<Long> evictor) {
+        subscribers.put(cacheName, evictor);
+    }
+
+    /**
+     * Registers a callback run for every invalidation of the cache, both those published by this replica and those
+     * received from the other replicas.
+     */
+    public void onInvalidation(String cacheName, Consumer<Long> listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Tells the other replicas to evict the key, or the whole cache when the key is {@code null}.
+     * Invalidations are applied locally after commit, while the connection of the transaction is still bound to the
+     * thread. Taking a second pooled connection there can exhaust the pool when every connection belongs to a
+     * committing request, so the invalidation is only queued here and sent by the listener on its own connection.
+     * When the queue is full the invalidation is dropped and counted, other replicas will still drop the entry when
+     * it expires.
+     */
+    public void publish(String cacheName, Long key) {
+
+        notifyListeners(cacheName, key);
+
+        if (!publishing) {
+            return;
+        }
+
+        if (!pendingPublications.offer(new CacheInvalidation(nodeId, cacheName, key, System.currentTimeMillis()))) {
+            publishFailures.increment();
+            log.warn("Could not publish invalidation of {} in cache {}, {} invalidations are waiting to be sent",
+                    key == null ? "all entries" : key, cacheName, MAX_PENDING_PUBLICATIONS);
+        }
+    }
+
+    /**
+     * Starts queueing local invalidations for {@link #sendPending(Connection)}. Until then there is nobody to send
+     * them and they are only applied locally.
+     */
+    void startPublishing() {
+        publishing = true;
+    }
+
+    void stopPublishing() {
+        publishing = false;
+        pendingPublications.clear();
+    }
+
+    /**
+     * Sends the queued invalidations on the connection, which must be in auto-commit mode. An invalidation is taken
+     * off the queue only once it was sent, so those still queued when the connection fails are sent after reconnecting.
+     */
+    void sendPending(Connection connection) throws SQLException {
+
+        if (pendingPublications.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")) {
+
+            CacheInvalidation invalidation;
+
+            while ((invalidation = pendingPublications.peek()) != null) {
+                try {
+                    statement.setString(1, CHANNEL);
+                    statement.setString(2, objectMapper.writeValueAsString(invalidation));
+                    statement.execute();
+                } catch (JsonProcessingException e) {
+                    publishFailures.increment();
+                    log.warn("Could not publish invalidation of {} in cache {}", invalidation.getKey() == null ? "all entries" : invalidation.getKey(), invalidation.getCacheName(), e);
+                }
+                pendingPublications.remove();
+            }
+        }
+    }
+
+    void receive(String payload) {
+
+        CacheInvalidation invalidation;
+
+        try {
+            invalidation = objectMapper.readValue(payload, CacheInvalidation.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed cache invalidation {}", payload, e);
+            return;
+        }
+
+        if (nodeId.equals(invalidation.getNodeId())) {
+            return;
+        }
+
+        received.increment();
+        // Replicas' clocks are not synchronized exactly, so the lag is approximate.
+        lag.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - invalidation.getPublishedAt())));
+
+        Consumer<Long> evictor = subscribers.get(invalidation.getCacheName());
+
+        if (evictor != null) {
+            evictor.accept(invalidation.getKey());
+        }
+
+        notifyListeners(invalidation.getCacheName(), invalidation.getKey());
+    }
+
+    /**
+     * Drops everything cached locally, used when invalidations may have been missed while not listening.
+     */
+    void flushAll() {
+        flushes.increment();
+        subscribers.forEach((cacheName, evictor) -> evictor.accept(null));
+        listeners.keySet().forEach(cacheName -> notifyListeners(cacheName, null));
+    }
+
+    private void notifyListeners(String cacheName, Long key) {
+        listeners.getOrDefault(cacheName, List.of()).forEach(listener -> listener.accept(key));
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.example.carrestservice.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Listens for invalidations of the other replicas on a dedicated connection outside the pool, and sends the
+ * invalidations of this replica on the same connection between polls. Invalidations sent by other replicas while the
+ * connection is down are lost, so all local caches are flushed whenever it is (re)established.
+ */
+@Component
+@ConditionalOnProperty(name = "car-rest-service.cache.invalidation.enabled", matchIfMissing = true)
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    // Also bounds how long a local invalidation waits before it is sent.
+    private static final int POLL_TIMEOUT_MILLIS = 100;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+    private DataSourceProperties dataSourceProperties;
+    private Duration reconnectDelay;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread thread;
+
+    public CacheInvalidationListener(CacheInvalidationBus cacheInvalidationBus, DataSourceProperties dataSourceProperties,
+                                     @Value("${car-rest-service.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.dataSourceProperties = dataSourceProperties;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        cacheInvalidationBus.startPublishing();
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        cacheInvalidationBus.stopPublishing();
+        thread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void listen() {
+
+        while (running) {
+
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen " + CacheInvalidationBus.CHANNEL);
+                }
+
+                cacheInvalidationBus.flushAll();
+                connected = true;
+                log.info("Listening for cache invalidations of other replicas");
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+
+                while (running) {
+                    cacheInvalidationBus.sendPending(connection);
+
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            cacheInvalidationBus.receive(notification.getParameter());
+                        }
+                    }
+                }
+
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Lost the cache invalidation connection, reconnecting in {}", reconnectDelay, e);
+                }
+            } finally {
+                connected = false;
+            }
+
+            if (running) {
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+}
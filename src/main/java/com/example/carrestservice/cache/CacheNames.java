@@ -0,0 +1,23 @@
+package com.example.carrestservice.cache;
+
+public final class CacheNames {
+
+    public static final String CARS = "cars";
+
+    public static final String CAR_MODELS = "carModels";
+
+    public static final String CAR_FACETS = "carFacets";
+
+    // In-memory snapshots that are not Spring caches but are invalidated across replicas the same way.
+
+    public static final String CATEGORIES = "categories";
+
+    public static final String MANUFACTURERS = "manufacturers";
+
+    public static final String CAR_MODEL_SUGGESTIONS = "carModelSuggestions";
+
+    private CacheNames() {
+
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.example.carrestservice.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "car-rest-service.cache")
+public class EntityCacheProperties {
+
+    private String defaultSpec = "maximumSize=1000,expireAfterWrite=10m";
+
+    private Map<String, String> specs = new LinkedHashMap<>();
+
+}
@@ -0,0 +1,93 @@
+package com.example.carrestservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine cache that publishes its evictions to the other replicas. It stays a {@link CaffeineCache} so cache
+ * metrics are still bound to it. Synchronized lookups that miss while another caller loads the same key wait for
+ * that load, and the time they wait is recorded.
+ */
+class InvalidatingCache extends CaffeineCache {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final Timer coalescedWait;
+
+    InvalidatingCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean allowNullValues, CacheInvalidationBus cacheInvalidationBus, MeterRegistry meterRegistry) {
+        super(name, cache, allowNullValues);
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.coalescedWait = Timer.builder("cache.load.coalesced.wait")
+                .description("Time lookups that missed spent waiting for a load of the same key started by another caller")
+                .tag("cache", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+
+        // Read through the map view, which leaves the hit and miss statistics to the lookup below.
+        if (getNativeCache().asMap().containsKey(key)) {
+            return super.get(key, valueLoader);
+        }
+
+        boolean[] loadedByThisCaller = new boolean[1];
+        long start = System.nanoTime();
+
+        T value = super.get(key, () -> {
+            loadedByThisCaller[0] = true;
+            return valueLoader.call();
+        });
+
+        if (!loadedByThisCaller[0]) {
+            coalescedWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        return value;
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        cacheInvalidationBus.publish(getName(), idOf(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        cacheInvalidationBus.publish(getName(), idOf(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        cacheInvalidationBus.publish(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = super.invalidate();
+        cacheInvalidationBus.publish(getName(), null);
+        return present;
+    }
+
+    void evictLocally(Long key) {
+        if (key == null) {
+            super.invalidate();
+        } else {
+            super.evict(key);
+        }
+    }
+
+    // Entries are keyed by id, other keys such as car filters are invalidated together with the whole cache.
+    private static Long idOf(Object key) {
+        return key instanceof Long id ? id : null;
+    }
+
+}
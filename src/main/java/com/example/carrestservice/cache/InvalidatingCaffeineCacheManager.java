@@ -0,0 +1,27 @@
+package com.example.carrestservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+class InvalidatingCaffeineCacheManager extends CaffeineCacheManager {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final MeterRegistry meterRegistry;
+
+    InvalidatingCaffeineCacheManager(CacheInvalidationBus cacheInvalidationBus, MeterRegistry meterRegistry) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+
+        InvalidatingCache invalidatingCache = new InvalidatingCache(name, cache, isAllowNullValues(), cacheInvalidationBus, meterRegistry);
+        cacheInvalidationBus.subscribe(name, invalidatingCache::evictLocally);
+
+        return invalidatingCache;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.carrestservice.cache;
+
+import com.example.carrestservice.entity.Car;
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.entity.Manufacturer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts the Hibernate second-level cache together with the application caches. Hibernate keeps its regions up to
+ * date for writes made through the entity manager, but not for rows removed by cascading deletes in the database,
+ * rows merged by the car import or writes made on other replicas; all of these already invalidate the application
+ * caches.
+ */
+@Component
+public class SecondLevelCacheInvalidation {
+
+    static final String CATEGORY_CARS = Category.class.getName() + ".cars";
+
+    static final String MANUFACTURER_CARS = Manufacturer.class.getName() + ".cars";
+
+    private Cache cache;
+
+    public SecondLevelCacheInvalidation(EntityManagerFactory entityManagerFactory, CacheInvalidationBus cacheInvalidationBus) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cacheInvalidationBus.onInvalidation(CacheNames.CARS, this::evictCar);
+        cacheInvalidationBus.onInvalidation(CacheNames.CAR_MODELS, this::evictCarModel);
+        cacheInvalidationBus.onInvalidation(CacheNames.CATEGORIES, key -> evictReferenceData(Category.class, CATEGORY_CARS));
+        cacheInvalidationBus.onInvalidation(CacheNames.MANUFACTURERS, key -> evictReferenceData(Manufacturer.class, MANUFACTURER_CARS));
+    }
+
+    private void evictCar(Long carId) {
+
+        if (carId == null) {
+            cache.evictEntityData(Car.class);
+        } else {
+            cache.evictEntityData(Car.class, carId);
+        }
+
+        // The category and manufacturer the car belonged to before the write are not known.
+        cache.evictCollectionData(CATEGORY_CARS);
+        cache.evictCollectionData(MANUFACTURER_CARS);
+    }
+
+    private void evictCarModel(Long carModelId) {
+
+        if (carModelId == null) {
+            cache.evictEntityData(CarModel.class);
+        } else {
+            cache.evictEntityData(CarModel.class, carModelId);
+        }
+
+        cache.evictQueryRegions();
+    }
+
+    private void evictReferenceData(Class<?> entityClass, String carsRole) {
+        cache.evictEntityData(entityClass);
+        cache.evictCollectionData(carsRole);
+        cache.evictQueryRegions();
+    }
+
+}
@@ -2,6 +2,8 @@ package com.example.carrestservice.entity;
 
 
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -9,33 +11,51 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Builder
 @Table(name = "cars")
+@NamedEntityGraph(name = Car.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("manufacturer"),
+        @NamedAttributeNode("carModel"),
+        @NamedAttributeNode("category")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Car implements Serializable {
 
+    public static final String DETAIL_GRAPH = "Car.detail";
+
     @Id
     @Column(name = "car_id")
     @EqualsAndHashCode.Include
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_id_generator")
-    @SequenceGenerator(name = "car_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "car_id_seq")
+    // allocationSize only mirrors the default car-rest-service.id-block-size. Flyway sets the sequence increment from
+    // that property, and Hibernate uses the increment whenever the two differ (increment_size_mismatch_strategy=fix).
+    @SequenceGenerator(name = "car_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "car_id_seq")
     private long carId;
 
     @ManyToOne
@@ -57,5 +77,17 @@ public class Car implements Serializable {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    @UpdateTimestamp
+    @EqualsAndHashCode.Exclude
+    @Column(name = "last_modified")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
 
 }
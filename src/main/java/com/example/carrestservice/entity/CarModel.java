@@ -1,7 +1,9 @@
 package com.example.carrestservice.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -10,14 +12,21 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Table(name = "car_models")
@@ -29,13 +38,26 @@ public class CarModel implements Serializable {
     @Column(name = "car_model_id")
     @EqualsAndHashCode.Include
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_model_id_generator")
-    @SequenceGenerator(name = "car_model_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "car_model_id_seq")
+    // The sequence increment overrides allocationSize, see Car.carId.
+    @SequenceGenerator(name = "car_model_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "car_model_id_seq")
     private long carModelId;
 
     @EqualsAndHashCode.Exclude
     @Column(name = "car_model_name", unique = true)
     private String carModelName;
 
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    @UpdateTimestamp
+    @EqualsAndHashCode.Exclude
+    @Column(name = "last_modified")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
     @JsonBackReference
     @EqualsAndHashCode.Exclude
     @OneToOne(mappedBy = "carModel", cascade = CascadeType.REMOVE)
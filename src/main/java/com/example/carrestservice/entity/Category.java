@@ -2,7 +2,9 @@ package com.example.carrestservice.entity;
 
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -11,15 +13,22 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Table(name = "categories")
@@ -31,15 +40,29 @@ public class Category implements Serializable {
     @Column(name= "category_id")
     @EqualsAndHashCode.Include
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_id_generator")
-    @SequenceGenerator(name = "category_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "category_id_seq")
+    // The sequence increment overrides allocationSize, see Car.carId.
+    @SequenceGenerator(name = "category_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "category_id_seq")
     private long categoryId;
 
     @EqualsAndHashCode.Exclude
     @Column(name = "category_name", unique = true)
     private String categoryName;
 
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    @UpdateTimestamp
+    @EqualsAndHashCode.Exclude
+    @Column(name = "last_modified")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
     @JsonBackReference
     @EqualsAndHashCode.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "category", cascade = CascadeType.REMOVE)
     private Set<Car> cars;
 
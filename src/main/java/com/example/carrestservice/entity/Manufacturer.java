@@ -1,7 +1,9 @@
 package com.example.carrestservice.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -10,15 +12,22 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Table(name = "manufacturers")
@@ -30,15 +39,29 @@ public class Manufacturer implements Serializable {
     @Column(name = "manufacturer_id")
     @EqualsAndHashCode.Include
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "manufacturer_id_generator")
-    @SequenceGenerator(name = "manufacturer_id_generator", initialValue = 1, allocationSize = 1, sequenceName = "manufacturer_id_seq")
+    // The sequence increment overrides allocationSize, see Car.carId.
+    @SequenceGenerator(name = "manufacturer_id_generator", initialValue = 1, allocationSize = 50, sequenceName = "manufacturer_id_seq")
     private long manufacturerId;
 
     @EqualsAndHashCode.Exclude
     @Column(name = "manufacturer_name", unique = true)
     private String manufacturerName;
 
+    @Version
+    @EqualsAndHashCode.Exclude
+    @Column(name = "version")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    @UpdateTimestamp
+    @EqualsAndHashCode.Exclude
+    @Column(name = "last_modified")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant lastModified;
+
     @JsonBackReference
     @EqualsAndHashCode.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "manufacturer", cascade = CascadeType.REMOVE)
     private Set<Car> cars;
     public Manufacturer(String manufacturerName) {
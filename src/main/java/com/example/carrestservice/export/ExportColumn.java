@@ -0,0 +1,16 @@
+package com.example.carrestservice.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class ExportColumn<T> {
+
+    private String name;
+
+    private Function<T, Object> value;
+
+}
@@ -0,0 +1,30 @@
+package com.example.carrestservice.export;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum ExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat of(String format) {
+        return Arrays.stream(values())
+                .filter(exportFormat -> exportFormat.name().equalsIgnoreCase(format))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Export format " + format + " is not supported."));
+    }
+
+}
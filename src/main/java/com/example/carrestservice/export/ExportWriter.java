@@ -0,0 +1,85 @@
+package com.example.carrestservice.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Component
+public class ExportWriter {
+
+    private ObjectMapper objectMapper;
+
+    public ExportWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy().addMixIn(Object.class, ExportedFields.class);
+    }
+
+    public <T> StreamingResponseBody write(ExportFormat format, List<ExportColumn<T>> columns, Consumer<Consumer<T>> source) {
+        return outputStream -> {
+
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            if (format == ExportFormat.CSV) {
+                writer.write(columns.stream()
+                        .map(column -> escape(column.getName()))
+                        .collect(Collectors.joining(",")));
+                writer.write('\n');
+            }
+
+            try {
+                source.accept(item -> writeLine(writer, format, columns, item));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            writer.flush();
+        };
+    }
+
+    private <T> void writeLine(Writer writer, ExportFormat format, List<ExportColumn<T>> columns, T item) {
+        try {
+            writer.write(format == ExportFormat.CSV ? toCsv(columns, item) : toJson(item));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(Object item) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(item);
+    }
+
+    private static <T> String toCsv(List<ExportColumn<T>> columns, T item) {
+        return columns.stream()
+                .map(column -> column.getValue().apply(item))
+                .map(value -> value == null ? "" : escape(value.toString()))
+                .collect(Collectors.joining(","));
+    }
+
+    private static String escape(String value) {
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Versions and modification times serve conditional requests; exported rows keep the documented entity fields.
+    @JsonIgnoreProperties({"version", "lastModified"})
+    private interface ExportedFields {
+
+    }
+
+}
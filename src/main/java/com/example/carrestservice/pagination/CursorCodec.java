@@ -0,0 +1,90 @@
+package com.example.carrestservice.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class CursorCodec {
+
+    private static final TypeReference<Map<String, Object>> KEYS_TYPE = new TypeReference<>() {};
+
+    private ObjectMapper objectMapper;
+
+    public CursorCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public KeysetScrollPosition decode(String after, String before) {
+
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("Only one of after and before cursors can be specified.");
+        }
+
+        if (after != null) {
+            return ScrollPosition.forward(decodeKeys(after));
+        }
+
+        if (before != null) {
+            return ScrollPosition.backward(decodeKeys(before));
+        }
+
+        return ScrollPosition.keyset();
+    }
+
+    public <T> CursorPage<T> toCursorPage(Window<T> window, KeysetScrollPosition scrollPosition) {
+
+        if (window.isEmpty()) {
+            return new CursorPage<>(List.of(), null, null, false, false);
+        }
+
+        boolean backward = scrollPosition.scrollsBackward();
+
+        boolean hasNext = backward || window.hasNext();
+        boolean hasPrevious = backward ? window.hasNext() : !scrollPosition.isInitial();
+
+        String nextCursor = hasNext ? encode(window.positionAt(window.size() - 1)) : null;
+        String previousCursor = hasPrevious ? encode(window.positionAt(0)) : null;
+
+        return new CursorPage<>(window.getContent(), nextCursor, previousCursor, hasNext, hasPrevious);
+    }
+
+    String encode(ScrollPosition scrollPosition) {
+
+        if (!(scrollPosition instanceof KeysetScrollPosition keysetScrollPosition)) {
+            throw new IllegalArgumentException("Only keyset positions can be encoded as cursors.");
+        }
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(keysetScrollPosition.getKeys());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cursor could not be encoded.", e);
+        }
+    }
+
+    private Map<String, Object> decodeKeys(String cursor) {
+
+        try {
+            Map<String, Object> keys = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+
+            if (keys == null || keys.isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+
+            return keys;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.carrestservice.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private String nextCursor;
+
+    private String previousCursor;
+
+    private boolean hasNext;
+
+    private boolean hasPrevious;
+
+}
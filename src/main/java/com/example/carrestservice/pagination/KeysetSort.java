@@ -0,0 +1,84 @@
+package com.example.carrestservice.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class KeysetSort {
+
+    private KeysetSort() {
+
+    }
+
+    public static Sort withTiebreaker(Sort sort, Map<String, Class<?>> sortFields, String idField) {
+
+        if (sort == null || sort.isUnsorted()) {
+            return Sort.by(Sort.Direction.ASC, idField);
+        }
+
+        for (Sort.Order order : sort) {
+            if (!sortFields.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("Sort field " + order.getProperty() + " is not supported for cursor pagination.");
+            }
+        }
+
+        if (sort.getOrderFor(idField) != null) {
+            return sort;
+        }
+
+        Sort.Direction direction = sort.iterator().next().getDirection();
+
+        return sort.and(Sort.by(direction, idField));
+    }
+
+    /**
+     * Returns the position with one key per sort field, each converted to the type of its field. Cursors come from
+     * clients, so a missing key or a value of the wrong type is rejected rather than passed on to the query.
+     */
+    public static KeysetScrollPosition validatePosition(KeysetScrollPosition scrollPosition, Sort sort, Map<String, Class<?>> sortFields) {
+
+        if (scrollPosition.isInitial()) {
+            return scrollPosition;
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+
+        for (Sort.Order order : sort) {
+
+            String field = order.getProperty();
+
+            if (!scrollPosition.getKeys().containsKey(field)) {
+                throw new IllegalArgumentException("Cursor does not match sort field " + field + ".");
+            }
+
+            keys.put(field, convert(field, scrollPosition.getKeys().get(field), sortFields.get(field)));
+        }
+
+        return scrollPosition.scrollsBackward() ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+    }
+
+    private static Object convert(String field, Object value, Class<?> type) {
+
+        if (type == String.class && value instanceof String) {
+            return value;
+        }
+
+        if (value instanceof Integer || value instanceof Long) {
+
+            long number = ((Number) value).longValue();
+
+            if (type == Long.class) {
+                return number;
+            }
+            if (type == Integer.class && number == (int) number) {
+                return (int) number;
+            }
+        }
+
+        throw new IllegalArgumentException("Cursor value of " + field + " is not valid.");
+    }
+
+}
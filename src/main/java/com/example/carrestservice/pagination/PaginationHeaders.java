@@ -0,0 +1,11 @@
+package com.example.carrestservice.pagination;
+
+public final class PaginationHeaders {
+
+    public static final String APPROXIMATE_TOTAL_COUNT = "X-Approximate-Total-Count";
+
+    private PaginationHeaders() {
+
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.search.CarFacets;
+import com.example.carrestservice.search.CarFilter;
+import com.example.carrestservice.search.FacetCount;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class CarFacetRepository {
+
+    // One scan of the filtered cars yields every facet: each grouping set is a facet and the empty set is the total.
+    private static final String COUNT_FACETS = """
+            select case
+                       when grouping(cars.manufacturer_id) = 0 then 'manufacturer'
+                       when grouping(cars.category_id) = 0 then 'category'
+                       when grouping(cars.manufacture_year) = 0 then 'year'
+                       else 'total'
+                   end as facet,
+                   coalesce(cars.manufacturer_id, cars.category_id, cars.manufacture_year) as value,
+                   coalesce(manufacturers.manufacturer_name, categories.category_name, cast(cars.manufacture_year as text)) as name,
+                   count(*) as car_count
+            from public.cars cars
+            left join public.manufacturers manufacturers on manufacturers.manufacturer_id = cars.manufacturer_id
+            left join public.categories categories on categories.category_id = cars.category_id
+            %s
+            where %s
+            group by grouping sets (
+                (cars.manufacturer_id, manufacturers.manufacturer_name),
+                (cars.category_id, categories.category_name),
+                (cars.manufacture_year),
+                ()
+            )
+            order by facet, car_count desc, value
+            """;
+
+    // The total is not stored as a row of its own, which every write would have to lock, but summed from the
+    // manufacturer rows that count each car exactly once.
+    private static final String READ_SUMMARY = """
+            select counts.facet,
+                   counts.value,
+                   coalesce(manufacturers.manufacturer_name, categories.category_name,
+                            case when counts.facet = 'year' then cast(counts.value as text) end) as name,
+                   counts.car_count
+            from public.car_facet_counts counts
+            left join public.manufacturers manufacturers on counts.facet = 'manufacturer' and manufacturers.manufacturer_id = counts.value
+            left join public.categories categories on counts.facet = 'category' and categories.category_id = counts.value
+            union all
+            select 'total', null, null, coalesce(sum(car_count), 0)
+            from public.car_facet_counts
+            where facet = 'manufacturer'
+            order by facet, car_count desc, value
+            """;
+
+    private static final String COUNT_LIVE = """
+            select case
+                       when grouping(manufacturer_id) = 0 then 'manufacturer'
+                       when grouping(category_id) = 0 then 'category'
+                       else 'year'
+                   end as facet,
+                   coalesce(manufacturer_id, category_id, manufacture_year) as value,
+                   count(*) as car_count
+            from public.cars
+            group by grouping sets ((manufacturer_id), (category_id), (manufacture_year))
+            """;
+
+    private static final String COUNT_DRIFT = """
+            select count(*)
+            from public.car_facet_counts counts
+            full join (%s) live on live.facet = counts.facet and coalesce(live.value, -1) = coalesce(counts.value, -1)
+            where live.car_count is distinct from counts.car_count
+              and not (live.facet is null and counts.car_count = 0)
+            """.formatted(COUNT_LIVE);
+
+    // Arbitrary application wide key of the advisory lock that lets only one replica check the summary at a time.
+    private static final long SUMMARY_CHECK_LOCK_KEY = 0x63617246616365L;
+
+    private static final String JOIN_CAR_MODELS = "join public.car_models car_models on car_models.car_model_id = cars.car_model_id";
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CarFacetRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public CarFacets countFacets(CarFilter filter) {
+
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+        if (filter.getManufacturerId() != null) {
+            conditions.add("cars.manufacturer_id = :manufacturerId");
+            parameters.addValue("manufacturerId", filter.getManufacturerId());
+        }
+        if (filter.getManufacturerName() != null) {
+            conditions.add("manufacturers.manufacturer_name = :manufacturerName");
+            parameters.addValue("manufacturerName", filter.getManufacturerName());
+        }
+        if (filter.getCategoryId() != null) {
+            conditions.add("cars.category_id = :categoryId");
+            parameters.addValue("categoryId", filter.getCategoryId());
+        }
+        if (filter.getCategoryName() != null) {
+            conditions.add("categories.category_name = :categoryName");
+            parameters.addValue("categoryName", filter.getCategoryName());
+        }
+        if (filter.getYearFrom() != null) {
+            conditions.add("cars.manufacture_year >= :yearFrom");
+            parameters.addValue("yearFrom", filter.getYearFrom());
+        }
+        if (filter.getYearTo() != null) {
+            conditions.add("cars.manufacture_year <= :yearTo");
+            parameters.addValue("yearTo", filter.getYearTo());
+        }
+        if (filter.getModelNamePrefix() != null) {
+            conditions.add("car_models.car_model_name like :modelNamePattern");
+            parameters.addValue("modelNamePattern", escapeLike(filter.getModelNamePrefix()) + "%");
+        }
+
+        String sql = COUNT_FACETS.formatted(
+                filter.getModelNamePrefix() == null ? "" : JOIN_CAR_MODELS,
+                conditions.isEmpty() ? "true" : String.join(" and ", conditions));
+
+        return readFacets(sql, parameters);
+    }
+
+    public CarFacets countFacetsFromSummary() {
+        return readFacets(READ_SUMMARY, new MapSqlParameterSource());
+    }
+
+    /**
+     * Tries to take the transaction scoped lock that keeps replicas from checking the summary concurrently, without
+     * waiting for it.
+     */
+    public boolean tryLockSummaryCheck() {
+        return jdbcTemplate.getJdbcOperations().queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, SUMMARY_CHECK_LOCK_KEY);
+    }
+
+    /**
+     * Locks cars against writes until the surrounding transaction ends and counts the summary rows that disagree
+     * with a full recount.
+     */
+    public long countSummaryDrift() {
+        jdbcTemplate.getJdbcOperations().execute("lock table public.cars in share mode");
+        return jdbcTemplate.getJdbcOperations().queryForObject(COUNT_DRIFT, Long.class);
+    }
+
+    public void rebuildSummary() {
+        jdbcTemplate.getJdbcOperations().execute("lock table public.cars in share mode");
+        jdbcTemplate.getJdbcOperations().update("delete from public.car_facet_counts");
+        jdbcTemplate.getJdbcOperations().update("insert into public.car_facet_counts (facet, value, car_count) " + COUNT_LIVE);
+    }
+
+    private CarFacets readFacets(String sql, MapSqlParameterSource parameters) {
+
+        List<FacetCount> manufacturers = new ArrayList<>();
+        List<FacetCount> categories = new ArrayList<>();
+        List<FacetCount> manufactureYears = new ArrayList<>();
+        long[] totalCount = new long[1];
+
+        jdbcTemplate.query(sql, parameters, resultSet -> {
+
+            long count = resultSet.getLong("car_count");
+            FacetCount facetCount = new FacetCount(resultSet.getObject("value", Long.class), resultSet.getString("name"), count);
+
+            switch (resultSet.getString("facet")) {
+                case "manufacturer" -> manufacturers.add(facetCount);
+                case "category" -> categories.add(facetCount);
+                case "year" -> manufactureYears.add(facetCount);
+                default -> totalCount[0] = count;
+            }
+        });
+
+        return new CarFacets(totalCount[0], manufacturers, categories, manufactureYears);
+    }
+
+    private static String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.batch.CarImportRejection;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+@Repository
+public class CarImportRepository {
+
+    private static final String DATA_EXCEPTION_SQL_STATE_CLASS = "22";
+
+    private static final String CREATE_STAGING_TABLE = """
+            create temporary table car_import_staging (
+                row_no bigint generated always as identity,
+                manufacturer_name text,
+                manufacture_year text,
+                car_model_name text,
+                category_name text
+            ) on commit drop
+            """;
+
+    private static final String COPY_STAGING_TABLE = """
+            copy car_import_staging (manufacturer_name, manufacture_year, car_model_name, category_name)
+            from stdin with (format csv, header true)
+            """;
+
+    private static final String CREATE_RESOLVED_TABLE = """
+            create temporary table car_import_resolved on commit drop as
+            select resolved.row_no,
+                   resolved.manufacturer_id,
+                   resolved.manufacture_year,
+                   resolved.car_model_id,
+                   resolved.category_id,
+                   case
+                       when resolved.manufacturer_id is null then 'Unknown manufacturer.'
+                       when resolved.manufacture_year is null then 'Invalid manufacture year.'
+                       when resolved.car_model_id is null then 'Unknown car model.'
+                       when resolved.category_id is null then 'Unknown category.'
+                       when row_number() over (partition by resolved.car_model_id order by resolved.row_no desc) > 1
+                           then 'Car model is imported again in a later row.'
+                   end as rejection_reason
+            from (
+                select staging.row_no,
+                       manufacturers.manufacturer_id,
+                       case when staging.manufacture_year ~ '^[0-9]{1,4}$' then cast(staging.manufacture_year as integer) end as manufacture_year,
+                       car_models.car_model_id,
+                       categories.category_id
+                from car_import_staging staging
+                left join public.manufacturers manufacturers on manufacturers.manufacturer_name = staging.manufacturer_name
+                left join public.car_models car_models on car_models.car_model_name = staging.car_model_name
+                left join public.categories categories on categories.category_name = staging.category_name
+            ) resolved
+            """;
+
+    // car_id_seq hands out pooled-lo blocks, so new cars take their ids from one nextval per block rather than from
+    // the column default, which would spend a whole block on every row. Rows that update an existing car take none.
+    private static final String MERGE_CARS = """
+            with accepted as materialized (
+                select resolved.manufacturer_id,
+                       resolved.manufacture_year,
+                       resolved.car_model_id,
+                       resolved.category_id,
+                       cars.car_id as existing_car_id,
+                       row_number() over (partition by cars.car_id is null order by resolved.row_no) - 1 as position
+                from car_import_resolved resolved
+                left join public.cars cars on cars.car_model_id = resolved.car_model_id
+                where resolved.rejection_reason is null
+            ),
+            id_sequence as (
+                select increment_by as block_size
+                from pg_sequences
+                where schemaname = 'public' and sequencename = 'car_id_seq'
+            ),
+            id_blocks as materialized (
+                select block_no, nextval('public.car_id_seq') as first_id
+                from id_sequence
+                cross join generate_series(0, ((select count(*) from accepted where existing_car_id is null) + block_size - 1) / block_size - 1) block_no
+            ),
+            merged as (
+                insert into public.cars (car_id, manufacturer_id, manufacture_year, car_model_id, category_id)
+                select coalesce(accepted.existing_car_id, id_blocks.first_id + accepted.position % id_sequence.block_size),
+                       accepted.manufacturer_id,
+                       accepted.manufacture_year,
+                       accepted.car_model_id,
+                       accepted.category_id
+                from accepted
+                cross join id_sequence
+                left join id_blocks on accepted.existing_car_id is null and id_blocks.block_no = accepted.position / id_sequence.block_size
+                on conflict (car_model_id) do update
+                    set manufacturer_id = excluded.manufacturer_id,
+                        manufacture_year = excluded.manufacture_year,
+                        category_id = excluded.category_id,
+                        version = cars.version + 1,
+                        last_modified = now()
+                returning (xmax = 0) as inserted
+            )
+            select count(*) filter (where inserted) as inserted_rows,
+                   count(*) filter (where not inserted) as updated_rows
+            from merged
+            """;
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSource dataSource;
+
+    public CarImportRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    public long copyToStaging(Reader csv) {
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+
+        try {
+            return connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(COPY_STAGING_TABLE, csv);
+        } catch (SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith(DATA_EXCEPTION_SQL_STATE_CLASS)) {
+                throw new IllegalArgumentException("Car import file is not valid: " + e.getMessage(), e);
+            }
+            DataAccessException translated = jdbcTemplate.getExceptionTranslator().translate("copy", COPY_STAGING_TABLE, e);
+            throw translated != null ? translated : new UncategorizedSQLException("copy", COPY_STAGING_TABLE, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    public void resolveStaging() {
+        jdbcTemplate.execute(CREATE_RESOLVED_TABLE);
+    }
+
+    public long countRejected() {
+        return jdbcTemplate.queryForObject("select count(*) from car_import_resolved where rejection_reason is not null", Long.class);
+    }
+
+    public List<CarImportRejection> findRejections(int limit) {
+        return jdbcTemplate.query("select row_no, rejection_reason from car_import_resolved where rejection_reason is not null order by row_no limit ?",
+                (resultSet, rowNumber) -> new CarImportRejection(resultSet.getLong("row_no"), resultSet.getString("rejection_reason")),
+                limit);
+    }
+
+    public MergedRows mergeIntoCars() {
+        return jdbcTemplate.queryForObject(MERGE_CARS,
+                (resultSet, rowNumber) -> new MergedRows(resultSet.getLong("inserted_rows"), resultSet.getLong("updated_rows")));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class MergedRows {
+
+        private long insertedRows;
+
+        private long updatedRows;
+
+    }
+
+}
@@ -1,14 +1,81 @@
 package com.example.carrestservice.repository;
 
 import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.search.CarModelSuggestion;
+import com.example.carrestservice.view.CarModelView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 
 public interface CarModelRepository extends JpaRepository<CarModel, Long> {
+
+    String SELECT_CAR_MODEL_VIEW = "select new com.example.carrestservice.view.CarModelView(cm.carModelId, cm.carModelName, cm.version, cm.lastModified) from CarModel cm";
+
     Optional<CarModel> findByCarModelName(String carModelName);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     boolean existsByCarModelName(String carModelName);
+
     boolean existsByCarModelId(long carModelId);
 
+    Window<CarModel> findAllBy(ScrollPosition scrollPosition, Sort sort, Limit limit);
+
+    Slice<CarModel> findAllBy(Pageable pageable);
+
+    @Query(value = SELECT_CAR_MODEL_VIEW, countQuery = "select count(cm) from CarModel cm")
+    Page<CarModelView> findViewPage(Pageable pageable);
+
+    @Query(SELECT_CAR_MODEL_VIEW)
+    Slice<CarModelView> findViewSlice(Pageable pageable);
+
+    @Query(SELECT_CAR_MODEL_VIEW + " where cm.carModelId = :carModelId")
+    Optional<CarModelView> findViewById(@Param("carModelId") long carModelId);
+
+    @Query(SELECT_CAR_MODEL_VIEW + " where cm.carModelId in :carModelIds")
+    List<CarModelView> findViewsByIds(@Param("carModelIds") Collection<Long> carModelIds);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(attributePaths = {"car", "car.manufacturer", "car.category"})
+    Stream<CarModel> streamAllByOrderByCarModelId();
+
+    @Query(value = "select greatest(cast(reltuples as bigint), 0) from pg_class where oid = cast('public.car_models' as regclass)", nativeQuery = true)
+    long estimateCount();
+
+    @Query("select cm.carModelName from CarModel cm where cm.carModelName in :carModelNames")
+    Set<String> findCarModelNamesIn(@Param("carModelNames") Collection<String> carModelNames);
+
+    @Query("select new com.example.carrestservice.search.CarModelSuggestion(cm.carModelId, cm.carModelName) from CarModel cm")
+    List<CarModelSuggestion> findAllSuggestions();
+
+    @Query("select new com.example.carrestservice.search.CarModelSuggestion(cm.carModelId, cm.carModelName) from CarModel cm where cm.carModelId = :carModelId")
+    Optional<CarModelSuggestion> findSuggestionById(@Param("carModelId") long carModelId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from CarModel cm where cm.carModelId = :carModelId")
+    int deleteByCarModelId(@Param("carModelId") long carModelId);
+
 }
@@ -1,13 +1,84 @@
 package com.example.carrestservice.repository;
 
 import com.example.carrestservice.entity.Car;
+import com.example.carrestservice.view.CarView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface CarRepository extends JpaRepository<Car, Long> {
+
+public interface CarRepository extends JpaRepository<Car, Long>, CarSearchRepository {
+
+    String SELECT_CAR_VIEW = """
+            select new com.example.carrestservice.view.CarView(
+                c.carId, c.manufactureYear, c.version, c.lastModified,
+                m.manufacturerId, m.manufacturerName, m.version, m.lastModified,
+                cm.carModelId, cm.carModelName, cm.version, cm.lastModified,
+                cat.categoryId, cat.categoryName, cat.version, cat.lastModified)
+            from Car c
+            left join c.manufacturer m
+            left join c.carModel cm
+            left join c.category cat
+            """;
 
     boolean existsByCarModel_CarModelId(long carModelId);
 
     boolean existsByCarId(long carId);
 
+    @Override
+    @EntityGraph(Car.DETAIL_GRAPH)
+    Optional<Car> findById(Long carId);
+
+    @EntityGraph(Car.DETAIL_GRAPH)
+    Window<Car> findAllBy(ScrollPosition scrollPosition, Sort sort, Limit limit);
+
+    @Query(value = SELECT_CAR_VIEW, countQuery = "select count(c) from Car c")
+    Page<CarView> findViewPage(Pageable pageable);
+
+    @Query(SELECT_CAR_VIEW)
+    Slice<CarView> findViewSlice(Pageable pageable);
+
+    @Query(SELECT_CAR_VIEW + " where c.carId = :carId")
+    Optional<CarView> findViewById(@Param("carId") long carId);
+
+    @Query(SELECT_CAR_VIEW + " where c.carId in :carIds")
+    List<CarView> findViewsByIds(@Param("carIds") Collection<Long> carIds);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(Car.DETAIL_GRAPH)
+    Stream<Car> streamAllByOrderByCarId();
+
+    @Query(value = "select greatest(cast(reltuples as bigint), 0) from pg_class where oid = cast('public.cars' as regclass)", nativeQuery = true)
+    long estimateCount();
+
+    @Query("select c.carModel.carModelId from Car c where c.carModel.carModelId in :carModelIds")
+    Set<Long> findCarModelIdsIn(@Param("carModelIds") Collection<Long> carModelIds);
+
+    @Modifying
+    @Transactional
+    @Query("delete from Car c where c.carId = :carId")
+    int deleteByCarId(@Param("carId") long carId);
+
 }
@@ -0,0 +1,16 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.entity.Car;
+import com.example.carrestservice.view.CarView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface CarSearchRepository {
+
+    Page<CarView> findMatchingViewPage(Specification<Car> specification, Pageable pageable);
+
+    Slice<CarView> findMatchingViewSlice(Specification<Car> specification, Pageable pageable);
+
+}
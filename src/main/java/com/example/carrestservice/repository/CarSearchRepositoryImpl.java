@@ -0,0 +1,100 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.entity.Car;
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.entity.Manufacturer;
+import com.example.carrestservice.view.CarView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class CarSearchRepositoryImpl implements CarSearchRepository {
+
+    private EntityManager entityManager;
+
+    CarSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<CarView> findMatchingViewPage(Specification<Car> specification, Pageable pageable) {
+
+        List<CarView> content = findViews(specification, pageable, pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    @Override
+    public Slice<CarView> findMatchingViewSlice(Specification<Car> specification, Pageable pageable) {
+        return toSlice(findViews(specification, pageable, pageable.getPageSize() + 1), pageable);
+    }
+
+    private List<CarView> findViews(Specification<Car> specification, Pageable pageable, int maxResults) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CarView> query = criteriaBuilder.createQuery(CarView.class);
+        Root<Car> root = query.from(Car.class);
+
+        Join<Car, Manufacturer> manufacturer = root.join("manufacturer", JoinType.LEFT);
+        Join<Car, CarModel> carModel = root.join("carModel", JoinType.LEFT);
+        Join<Car, Category> category = root.join("category", JoinType.LEFT);
+
+        query.select(criteriaBuilder.construct(CarView.class,
+                root.get("carId"), root.get("manufactureYear"), root.get("version"), root.get("lastModified"),
+                manufacturer.get("manufacturerId"), manufacturer.get("manufacturerName"), manufacturer.get("version"), manufacturer.get("lastModified"),
+                carModel.get("carModelId"), carModel.get("carModelName"), carModel.get("version"), carModel.get("lastModified"),
+                category.get("categoryId"), category.get("categoryName"), category.get("version"), category.get("lastModified")));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    private long count(Specification<Car> specification) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Car> root = query.from(Car.class);
+
+        query.select(criteriaBuilder.count(root));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static <T> Slice<T> toSlice(List<T> content, Pageable pageable) {
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+}
@@ -1,14 +1,41 @@
 package com.example.carrestservice.repository;
 
 import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.view.CategoryView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByCategoryName(String categoryName);
+
     Optional<Category> findByCategoryName(String categoryName);
+
     boolean existsByCategoryId(long categoryId);
 
+    Window<Category> findAllBy(ScrollPosition scrollPosition, Sort sort, Limit limit);
+
+    @Query("select new com.example.carrestservice.view.CategoryView(c.categoryId, c.categoryName, c.version, c.lastModified) from Category c")
+    List<CategoryView> findAllViews();
+
+    @Query("select c.categoryName from Category c where c.categoryName in :categoryNames")
+    Set<String> findCategoryNamesIn(@Param("categoryNames") Collection<String> categoryNames);
+
+    @Modifying
+    @Transactional
+    @Query("delete from Category c where c.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") long categoryId);
+
 }
@@ -0,0 +1,120 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.view.Fieldset;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads only the columns of a {@link Fieldset}, joining an association only when one of its fields is selected.
+ */
+@Repository
+public class FieldsetRepository {
+
+    private EntityManager entityManager;
+
+    public FieldsetRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public <T> Page<Map<String, Object>> findPage(Class<T> entityClass, Specification<T> specification, Fieldset fieldset, Pageable pageable) {
+
+        List<Map<String, Object>> content = find(entityClass, specification, fieldset, pageable, pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityClass, specification));
+    }
+
+    public <T> Slice<Map<String, Object>> findSlice(Class<T> entityClass, Specification<T> specification, Fieldset fieldset, Pageable pageable) {
+
+        List<Map<String, Object>> content = find(entityClass, specification, fieldset, pageable, pageable.getPageSize() + 1);
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private <T> List<Map<String, Object>> find(Class<T> entityClass, Specification<T> specification, Fieldset fieldset, Pageable pageable, int maxResults) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+
+        for (String path : fieldset.getSelectedPaths()) {
+            selections.add(resolve(root, joins, path).alias(path));
+        }
+
+        query.multiselect(selections);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults)
+                .getResultList()
+                .stream()
+                .map(tuple -> fieldset.toRow(tuple::get))
+                .toList();
+    }
+
+    private <T> long count(Class<T> entityClass, Specification<T> specification) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(entityClass);
+
+        query.select(criteriaBuilder.count(root));
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> resolve(Root<?> root, Map<String, Join<?, ?>> joins, String path) {
+
+        String[] names = path.split("\\.");
+        From<?, ?> from = root;
+
+        for (int i = 0; i < names.length - 1; i++) {
+            From<?, ?> parent = from;
+            String name = names[i];
+            from = joins.computeIfAbsent(String.join(".", List.of(names).subList(0, i + 1)), key -> parent.join(name, JoinType.LEFT));
+        }
+
+        return from.get(names[names.length - 1]);
+    }
+
+}
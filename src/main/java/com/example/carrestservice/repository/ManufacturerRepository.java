@@ -1,15 +1,42 @@
 package com.example.carrestservice.repository;
 
 import com.example.carrestservice.entity.Manufacturer;
+import com.example.carrestservice.view.ManufacturerView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
 public interface ManufacturerRepository extends JpaRepository<Manufacturer, Long> {
 
     boolean existsByManufacturerName(String manufacturerName);
+
     Optional<Manufacturer> findByManufacturerName(String manufacturerName);
+
     boolean existsByManufacturerId(long manufacturerId);
 
+    Window<Manufacturer> findAllBy(ScrollPosition scrollPosition, Sort sort, Limit limit);
+
+    @Query("select new com.example.carrestservice.view.ManufacturerView(m.manufacturerId, m.manufacturerName, m.version, m.lastModified) from Manufacturer m")
+    List<ManufacturerView> findAllViews();
+
+    @Query("select m.manufacturerName from Manufacturer m where m.manufacturerName in :manufacturerNames")
+    Set<String> findManufacturerNamesIn(@Param("manufacturerNames") Collection<String> manufacturerNames);
+
+    @Modifying
+    @Transactional
+    @Query("delete from Manufacturer m where m.manufacturerId = :manufacturerId")
+    int deleteByManufacturerId(@Param("manufacturerId") long manufacturerId);
+
 }
@@ -0,0 +1,90 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.entity.Manufacturer;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class NameSearchRepository {
+
+    // Each branch is bounded on its own so the GiST trigram index serves it without ranking every match: similar
+    // names come from a nearest-neighbour scan by trigram distance, prefix and substring matches from a limited scan.
+    private static final String SEARCH = """
+            select id, name
+            from (
+                (select %1$s as id, %2$s as name
+                 from public.%3$s
+                 where %2$s %% :query
+                 order by %2$s <-> :query
+                 limit :limit)
+                union
+                (select %1$s, %2$s
+                 from public.%3$s
+                 where %2$s ilike :prefixPattern
+                 limit :limit)
+                union
+                (select %1$s, %2$s
+                 from public.%3$s
+                 where %2$s ilike :containsPattern
+                 limit :limit)
+            ) candidates
+            order by name ilike :prefixPattern desc, name <-> :query, name
+            limit :limit
+            """;
+
+    private static final String SEARCH_CAR_MODELS = SEARCH.formatted("car_model_id", "car_model_name", "car_models");
+
+    private static final String SEARCH_MANUFACTURERS = SEARCH.formatted("manufacturer_id", "manufacturer_name", "manufacturers");
+
+    private static final String SEARCH_CATEGORIES = SEARCH.formatted("category_id", "category_name", "categories");
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    public NameSearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<CarModel> searchCarModels(String query, int limit) {
+        return jdbcTemplate.query(SEARCH_CAR_MODELS, parameters(query, limit), (resultSet, rowNumber) -> {
+            CarModel carModel = new CarModel(resultSet.getString("name"));
+            carModel.setCarModelId(resultSet.getLong("id"));
+            return carModel;
+        });
+    }
+
+    public List<Manufacturer> searchManufacturers(String query, int limit) {
+        return jdbcTemplate.query(SEARCH_MANUFACTURERS, parameters(query, limit), (resultSet, rowNumber) -> {
+            Manufacturer manufacturer = new Manufacturer(resultSet.getString("name"));
+            manufacturer.setManufacturerId(resultSet.getLong("id"));
+            return manufacturer;
+        });
+    }
+
+    public List<Category> searchCategories(String query, int limit) {
+        return jdbcTemplate.query(SEARCH_CATEGORIES, parameters(query, limit), (resultSet, rowNumber) -> {
+            Category category = new Category(resultSet.getString("name"));
+            category.setCategoryId(resultSet.getLong("id"));
+            return category;
+        });
+    }
+
+    private static MapSqlParameterSource parameters(String query, int limit) {
+
+        String escapedQuery = query
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+
+        return new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("containsPattern", "%" + escapedQuery + "%")
+                .addValue("prefixPattern", escapedQuery + "%")
+                .addValue("limit", limit);
+    }
+
+}
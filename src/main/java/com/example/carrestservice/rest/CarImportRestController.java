@@ -0,0 +1,50 @@
+package com.example.carrestservice.rest;
+
+import com.example.carrestservice.batch.CarImportResult;
+import com.example.carrestservice.exception.ApiError;
+import com.example.carrestservice.service.CarImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@Tag(name = "car import" , description = "APIs for bulk loading cars from CSV files.")
+@RestController
+public class CarImportRestController {
+
+    private CarImportService carImportService;
+
+    public CarImportRestController(CarImportService carImportService) {
+        this.carImportService = carImportService;
+    }
+
+    @Operation(summary = "import cars from a CSV file with manufacturerName, manufactureYear, carModelName and categoryName columns", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "cars were imported, rejected rows are reported",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CarImportResult.class))}),
+            @ApiResponse(responseCode = "400", description = "import file is not a valid CSV file", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping(value = "/admin/cars/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public CarImportResult importCars(@Parameter(description = "CSV file with a header row") @RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return carImportService.importCars(reader);
+        }
+    }
+
+}
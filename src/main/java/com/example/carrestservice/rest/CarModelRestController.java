@@ -1,31 +1,60 @@
 package com.example.carrestservice.rest;
 
+import com.example.carrestservice.batch.BatchItemResult;
 import com.example.carrestservice.entity.CarModel;
 import com.example.carrestservice.exception.ApiError;
+import com.example.carrestservice.export.ExportColumn;
+import com.example.carrestservice.export.ExportFormat;
+import com.example.carrestservice.export.ExportWriter;
+import com.example.carrestservice.pagination.CursorCodec;
+import com.example.carrestservice.pagination.CursorPage;
+import com.example.carrestservice.pagination.PaginationHeaders;
+import com.example.carrestservice.search.CarModelSuggestion;
 import com.example.carrestservice.service.CarModelService;
+import com.example.carrestservice.view.CarModelView;
+import com.example.carrestservice.view.Revision;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @Tag(name = "car model" , description = "APIs for managing car models, including create, update, delete, and retrieve operations.")
 @RestController
 public class CarModelRestController {
 
+    private static final List<ExportColumn<CarModel>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("carModelId", CarModel::getCarModelId),
+            ExportColumn.of("carModelName", CarModel::getCarModelName)
+    );
+
     private CarModelService carModelService;
+    private CursorCodec cursorCodec;
+    private ExportWriter exportWriter;
 
-    public CarModelRestController(CarModelService carModelService) {
+    public CarModelRestController(CarModelService carModelService, CursorCodec cursorCodec, ExportWriter exportWriter) {
         this.carModelService = carModelService;
+        this.cursorCodec = cursorCodec;
+        this.exportWriter = exportWriter;
     }
 
     @Operation(summary = "create a new car model", security = @SecurityRequirement(name = "bearerAuth"))
@@ -44,6 +73,22 @@ public class CarModelRestController {
         return carModelService.createCarModel(carModel);
     }
 
+    @Operation(summary = "create car models in bulk", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "per-item results of the batch",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class)))}),
+            @ApiResponse(responseCode = "400", description = "car models can not be null", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "409", description = "car model with this name already exists", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/car-models/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BatchItemResult<CarModel>> createCarModels(@Parameter(description = "car models to be created") @RequestBody List<CarModel> carModels) {
+        return carModelService.createCarModels(carModels);
+    }
+
     @Operation(summary = "update existing car model", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "car model was updated",
@@ -80,7 +125,7 @@ public class CarModelRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
             content = {@Content(mediaType = "application/json",
-                schema = @Schema(implementation = CarModel.class))}),
+                schema = @Schema(implementation = CarModelView.class))}),
             @ApiResponse(responseCode = "401", description = "offset must be a non-negative integer", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))}),
             @ApiResponse(responseCode = "401", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
@@ -88,7 +133,7 @@ public class CarModelRestController {
     })
     @GetMapping("/car-models")
     @ResponseStatus(HttpStatus.OK)
-    public Page<CarModel> getCarModels(
+    public Slice<?> getCarModels(
             @Parameter(description = "sort field")
             @RequestParam(required = false, defaultValue = "carModelId") String sortField,
             @Parameter(description = "sort direction")
@@ -96,7 +141,14 @@ public class CarModelRestController {
             @Parameter(description = "offset")
             @RequestParam(required = false, defaultValue = "0") int offset,
             @Parameter(description = "page size")
-            @RequestParam(required = false, defaultValue = "10") int pageSize){
+            @RequestParam(required = false, defaultValue = "10") int pageSize,
+            @Parameter(description = "whether to count the total number of elements")
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @Parameter(description = "whether to return an approximate total number of elements when it is not counted")
+            @RequestParam(required = false, defaultValue = "false") boolean withApproximateTotal,
+            @Parameter(description = "comma separated fields to return for car models, e.g. carModelName")
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
 
 
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
@@ -105,22 +157,155 @@ public class CarModelRestController {
 
         Pageable pageable = PageRequest.of(offset, pageSize,sort);
 
-        return carModelService.getAll(pageable);
+        if (withTotal) {
+            return fields == null ? carModelService.getAll(pageable) : carModelService.getAll(fields, pageable);
+        }
+
+        if (withApproximateTotal) {
+            response.setHeader(PaginationHeaders.APPROXIMATE_TOTAL_COUNT, String.valueOf(carModelService.getApproximateCount()));
+        }
+
+        return fields == null ? carModelService.getSlice(pageable) : carModelService.getSlice(fields, pageable);
     }
 
+    @Operation(summary = "get car models using cursor pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class))}),
+            @ApiResponse(responseCode = "400", description = "cursor or sort field is not valid", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "400", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+    })
+    @GetMapping("/car-models/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPage<CarModel> scrollCarModels(
+            @Parameter(description = "sort field")
+            @RequestParam(required = false, defaultValue = "carModelId") String sortField,
+            @Parameter(description = "sort direction")
+            @RequestParam(required = false, defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "cursor of the last element of the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "cursor of the first element of the current page, returns the page before it")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "page size")
+            @RequestParam(required = false, defaultValue = "10") int pageSize) {
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+
+        Sort sort = Sort.by(direction, sortField);
+
+        KeysetScrollPosition scrollPosition = cursorCodec.decode(after, before);
+
+        Window<CarModel> window = carModelService.getAll(scrollPosition, sort, pageSize);
+
+        return cursorCodec.toCursorPage(window, scrollPosition);
+    }
+
+    @Operation(summary = "export all car models as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "car models are streamed one per line",
+                    content = {@Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = CarModel.class)), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "export format is not supported", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/car-models/export")
+    public ResponseEntity<StreamingResponseBody> exportCarModels(
+            @Parameter(description = "export format, ndjson or csv")
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(exportWriter.write(exportFormat, EXPORT_COLUMNS, carModelService::exportAll));
+    }
+
+    @Operation(summary = "search car models by similar name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "best matching car models, most similar first",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CarModel.class)))}),
+            @ApiResponse(responseCode = "400", description = "query is empty or limit is out of range", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/car-models/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CarModel> searchCarModels(
+            @Parameter(description = "part of the car model name, typos are tolerated")
+            @RequestParam String q,
+            @Parameter(description = "maximum number of matches")
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        return carModelService.search(q, limit);
+    }
+
+    @Operation(summary = "suggest car models whose name starts with the given prefix")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "car models starting with the prefix, in name order",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CarModelSuggestion.class)))}),
+            @ApiResponse(responseCode = "400", description = "prefix is empty or limit is out of range", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/car-models/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CarModelSuggestion> suggestCarModels(
+            @Parameter(description = "beginning of the car model name, case insensitive")
+            @RequestParam String prefix,
+            @Parameter(description = "maximum number of suggestions")
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        return carModelService.suggest(prefix, limit);
+    }
+
+    @Operation(summary = "get car models by ids")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "car models in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CarModelView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping(value = "/car-models", params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CarModelView> getCarModelsByIds(@Parameter(description = "comma separated car model ids") @RequestParam List<Long> ids) {
+        return carModelService.getByIds(ids);
+    }
+
+    @Operation(summary = "get car models by ids passed in the request body, for lists too long for a query string")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "car models in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CarModelView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/car-models/by-ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CarModelView> findCarModelsByIds(@Parameter(description = "car model ids") @RequestBody List<Long> ids) {
+        return carModelService.getByIds(ids);
+    }
 
     @Operation(summary = "get car model by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "car model was found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = CarModel.class))}),
+                            schema = @Schema(implementation = CarModelView.class))}),
+            @ApiResponse(responseCode = "304", description = "car model was not modified since the version in If-None-Match or If-Modified-Since"),
             @ApiResponse(responseCode = "404", description = "car model with this id not found", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))})
     })
     @GetMapping("/car-models/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public CarModel getCarModelById(@Parameter(description = "car model id to be searched") @PathVariable Long id) {
-        return carModelService.getById(id);
+    public ResponseEntity<CarModelView> getCarModelById(@Parameter(description = "car model id to be searched") @PathVariable Long id, WebRequest request) {
+
+        CarModelView carModel = carModelService.getById(id);
+
+        if (ConditionalRequests.isNotModified(request, Revision.of(carModel))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(carModel);
     }
 
 
@@ -1,29 +1,66 @@
 package com.example.carrestservice.rest;
 
+import com.example.carrestservice.batch.BatchItemResult;
 import com.example.carrestservice.entity.Car;
 import com.example.carrestservice.exception.ApiError;
+import com.example.carrestservice.export.ExportColumn;
+import com.example.carrestservice.export.ExportFormat;
+import com.example.carrestservice.export.ExportWriter;
+import com.example.carrestservice.pagination.CursorCodec;
+import com.example.carrestservice.pagination.CursorPage;
+import com.example.carrestservice.pagination.PaginationHeaders;
+import com.example.carrestservice.search.CarFacets;
+import com.example.carrestservice.search.CarFilter;
 import com.example.carrestservice.service.CarService;
+import com.example.carrestservice.view.CarView;
+import com.example.carrestservice.view.Revision;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @Tag(name = "car" , description = "APIs for managing cars, including create, update, delete, and retrieve operations.")
 public class CarRestController {
+    private static final List<ExportColumn<Car>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("carId", Car::getCarId),
+            ExportColumn.of("manufactureYear", Car::getManufactureYear),
+            ExportColumn.of("manufacturerId", car -> car.getManufacturer() == null ? null : car.getManufacturer().getManufacturerId()),
+            ExportColumn.of("manufacturerName", car -> car.getManufacturer() == null ? null : car.getManufacturer().getManufacturerName()),
+            ExportColumn.of("carModelId", car -> car.getCarModel() == null ? null : car.getCarModel().getCarModelId()),
+            ExportColumn.of("carModelName", car -> car.getCarModel() == null ? null : car.getCarModel().getCarModelName()),
+            ExportColumn.of("categoryId", car -> car.getCategory() == null ? null : car.getCategory().getCategoryId()),
+            ExportColumn.of("categoryName", car -> car.getCategory() == null ? null : car.getCategory().getCategoryName())
+    );
+
     private CarService carService;
-    public CarRestController(CarService carService) {
+    private CursorCodec cursorCodec;
+    private ExportWriter exportWriter;
+    public CarRestController(CarService carService, CursorCodec cursorCodec, ExportWriter exportWriter) {
         this.carService = carService;
+        this.cursorCodec = cursorCodec;
+        this.exportWriter = exportWriter;
     }
 
     @Operation(summary = "create a new car", security = @SecurityRequirement(name = "bearerAuth"))
@@ -42,6 +79,22 @@ public class CarRestController {
         return carService.createCar(car);
     }
 
+    @Operation(summary = "create cars in bulk", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "per-item results of the batch",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class)))}),
+            @ApiResponse(responseCode = "400", description = "cars can not be null", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "409", description = "car with this car model id already exists", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/cars/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BatchItemResult<Car>> createCars(@Parameter(description = "cars to be created") @RequestBody List<Car> cars) {
+        return carService.createCars(cars);
+    }
+
 
     @Operation(summary = "update existing car", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
@@ -77,7 +130,7 @@ public class CarRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Car.class))}),
+                            schema = @Schema(implementation = CarView.class))}),
             @ApiResponse(responseCode = "401", description = "offset must be a non-negative integer", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))}),
             @ApiResponse(responseCode = "401", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
@@ -85,7 +138,7 @@ public class CarRestController {
     })
     @GetMapping("/cars")
     @ResponseStatus(HttpStatus.OK)
-    public Page<Car> getCars(
+    public Slice<?> getCars(
             @Parameter(description = "sort field")
             @RequestParam(required = false, defaultValue = "carId") String sortField,
             @Parameter(description = "sort direction")
@@ -93,7 +146,15 @@ public class CarRestController {
             @Parameter(description = "offset")
             @RequestParam(required = false, defaultValue = "0") int offset,
             @Parameter(description = "page size")
-            @RequestParam(required = false, defaultValue = "10") int pageSize) {
+            @RequestParam(required = false, defaultValue = "10") int pageSize,
+            @Parameter(description = "whether to count the total number of elements")
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @Parameter(description = "whether to return an approximate total number of elements when it is not counted")
+            @RequestParam(required = false, defaultValue = "false") boolean withApproximateTotal,
+            @Parameter(description = "comma separated fields to return for cars, e.g. carId,carModel.carModelName,manufactureYear")
+            @RequestParam(required = false) String fields,
+            @ParameterObject CarFilter filter,
+            HttpServletResponse response) {
 
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
 
@@ -101,21 +162,133 @@ public class CarRestController {
 
         Pageable pageable = PageRequest.of(offset, pageSize,sort);
 
-        return carService.getAll(pageable);
+        if (withTotal) {
+            return fields == null ? carService.getAll(filter, pageable) : carService.getAll(filter, fields, pageable);
+        }
+
+        if (withApproximateTotal && filter.isEmpty()) {
+            response.setHeader(PaginationHeaders.APPROXIMATE_TOTAL_COUNT, String.valueOf(carService.getApproximateCount()));
+        }
+
+        return fields == null ? carService.getSlice(filter, pageable) : carService.getSlice(filter, fields, pageable);
+    }
+
+    @Operation(summary = "get cars using cursor pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class))}),
+            @ApiResponse(responseCode = "400", description = "cursor or sort field is not valid", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "400", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+    })
+    @GetMapping("/cars/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPage<Car> scrollCars(
+            @Parameter(description = "sort field")
+            @RequestParam(required = false, defaultValue = "carId") String sortField,
+            @Parameter(description = "sort direction")
+            @RequestParam(required = false, defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "cursor of the last element of the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "cursor of the first element of the current page, returns the page before it")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "page size")
+            @RequestParam(required = false, defaultValue = "10") int pageSize) {
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+
+        Sort sort = Sort.by(direction, sortField);
+
+        KeysetScrollPosition scrollPosition = cursorCodec.decode(after, before);
+
+        Window<Car> window = carService.getAll(scrollPosition, sort, pageSize);
+
+        return cursorCodec.toCursorPage(window, scrollPosition);
+    }
+
+    @Operation(summary = "export all cars as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "cars are streamed one per line",
+                    content = {@Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = Car.class)), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "export format is not supported", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/cars/export")
+    public ResponseEntity<StreamingResponseBody> exportCars(
+            @Parameter(description = "export format, ndjson or csv")
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(exportWriter.write(exportFormat, EXPORT_COLUMNS, carService::exportAll));
+    }
+
+    @Operation(summary = "count cars by manufacturer, category and manufacture year")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "car counts of every facet, largest first",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CarFacets.class))}),
+            @ApiResponse(responseCode = "400", description = "filter is not valid", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/cars/facets")
+    @ResponseStatus(HttpStatus.OK)
+    public CarFacets getCarFacets(@ParameterObject CarFilter filter) {
+        return carService.getFacets(filter);
+    }
+
+    @Operation(summary = "get cars by ids")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "cars in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CarView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping(value = "/cars", params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CarView> getCarsByIds(@Parameter(description = "comma separated car ids") @RequestParam List<Long> ids) {
+        return carService.getByIds(ids);
+    }
+
+    @Operation(summary = "get cars by ids passed in the request body, for lists too long for a query string")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "cars in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CarView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/cars/by-ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CarView> findCarsByIds(@Parameter(description = "car ids") @RequestBody List<Long> ids) {
+        return carService.getByIds(ids);
     }
 
     @Operation(summary = "get car by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "car was found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Car.class))}),
+                            schema = @Schema(implementation = CarView.class))}),
+            @ApiResponse(responseCode = "304", description = "car was not modified since the version in If-None-Match or If-Modified-Since"),
             @ApiResponse(responseCode = "404", description = "car with this id not found", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))})
     })
     @GetMapping("/cars/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Car getCarById(@Parameter(description = "car id to be searched") @PathVariable Long id) {
-        return carService.getById(id);
+    public ResponseEntity<CarView> getCarById(@Parameter(description = "car id to be searched") @PathVariable Long id, WebRequest request) {
+
+        CarView car = carService.getById(id);
+
+        if (ConditionalRequests.isNotModified(request, Revision.of(car))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(car);
     }
 
 }
@@ -1,29 +1,56 @@
 package com.example.carrestservice.rest;
 
+import com.example.carrestservice.batch.BatchItemResult;
 import com.example.carrestservice.entity.Category;
 import com.example.carrestservice.exception.ApiError;
+import com.example.carrestservice.export.ExportColumn;
+import com.example.carrestservice.export.ExportFormat;
+import com.example.carrestservice.export.ExportWriter;
+import com.example.carrestservice.pagination.CursorCodec;
+import com.example.carrestservice.pagination.CursorPage;
+import com.example.carrestservice.pagination.PaginationHeaders;
 import com.example.carrestservice.service.CategoryService;
+import com.example.carrestservice.view.CategoryView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @Tag(name = "category" , description = "APIs for managing categories, including create, update, delete, and retrieve operations.")
 @RestController
 public class CategoryRestController {
+    private static final List<ExportColumn<CategoryView>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("categoryId", CategoryView::getCategoryId),
+            ExportColumn.of("categoryName", CategoryView::getCategoryName)
+    );
+
     private CategoryService categoryService;
-    public CategoryRestController(CategoryService categoryService) {
+    private CursorCodec cursorCodec;
+    private ExportWriter exportWriter;
+    public CategoryRestController(CategoryService categoryService, CursorCodec cursorCodec, ExportWriter exportWriter) {
         this.categoryService = categoryService;
+        this.cursorCodec = cursorCodec;
+        this.exportWriter = exportWriter;
     }
 
 
@@ -43,6 +70,22 @@ public class CategoryRestController {
         return categoryService.createCategory(category);
     }
 
+    @Operation(summary = "create categories in bulk", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "per-item results of the batch",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class)))}),
+            @ApiResponse(responseCode = "400", description = "categories can not be null", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "409", description = "category with this name already exist", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/categories/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BatchItemResult<Category>> createCategories(@Parameter(description = "categories to be created") @RequestBody List<Category> categories) {
+        return categoryService.createCategories(categories);
+    }
+
     @Operation(summary = "update existing category", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "category was updated",
@@ -79,7 +122,7 @@ public class CategoryRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Category.class))}),
+                            schema = @Schema(implementation = CategoryView.class))}),
             @ApiResponse(responseCode = "401", description = "offset must be a non-negative integer", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))}),
             @ApiResponse(responseCode = "401", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
@@ -87,7 +130,7 @@ public class CategoryRestController {
     })
     @GetMapping("/categories")
     @ResponseStatus(HttpStatus.OK)
-    public Page<Category> getCategories(
+    public Slice<?> getCategories(
             @Parameter(description = "sort field")
             @RequestParam(required = false, defaultValue = "categoryId") String sortField,
             @Parameter(description = "sort direction")
@@ -95,7 +138,14 @@ public class CategoryRestController {
             @Parameter(description = "offset")
             @RequestParam(required = false, defaultValue = "0") int offset,
             @Parameter(description = "page size")
-            @RequestParam(required = false, defaultValue = "10") int pageSize) {
+            @RequestParam(required = false, defaultValue = "10") int pageSize,
+            @Parameter(description = "whether to count the total number of elements")
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @Parameter(description = "whether to return an approximate total number of elements when it is not counted")
+            @RequestParam(required = false, defaultValue = "false") boolean withApproximateTotal,
+            @Parameter(description = "comma separated fields to return for categories, e.g. categoryName")
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
 
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
 
@@ -103,21 +153,134 @@ public class CategoryRestController {
 
         Pageable pageable = PageRequest.of(offset, pageSize,sort);
 
-        return categoryService.getAll(pageable);
+        if (withTotal) {
+            return fields == null ? categoryService.getAll(pageable) : categoryService.getAll(fields, pageable);
+        }
+
+        if (withApproximateTotal) {
+            response.setHeader(PaginationHeaders.APPROXIMATE_TOTAL_COUNT, String.valueOf(categoryService.getApproximateCount()));
+        }
+
+        return fields == null ? categoryService.getSlice(pageable) : categoryService.getSlice(fields, pageable);
+    }
+
+    @Operation(summary = "get categories using cursor pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class))}),
+            @ApiResponse(responseCode = "400", description = "cursor or sort field is not valid", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "400", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+    })
+    @GetMapping("/categories/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPage<Category> scrollCategories(
+            @Parameter(description = "sort field")
+            @RequestParam(required = false, defaultValue = "categoryId") String sortField,
+            @Parameter(description = "sort direction")
+            @RequestParam(required = false, defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "cursor of the last element of the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "cursor of the first element of the current page, returns the page before it")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "page size")
+            @RequestParam(required = false, defaultValue = "10") int pageSize) {
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+
+        Sort sort = Sort.by(direction, sortField);
+
+        KeysetScrollPosition scrollPosition = cursorCodec.decode(after, before);
+
+        Window<Category> window = categoryService.getAll(scrollPosition, sort, pageSize);
+
+        return cursorCodec.toCursorPage(window, scrollPosition);
+    }
+
+    @Operation(summary = "export all categories as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "categories are streamed one per line",
+                    content = {@Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = CategoryView.class)), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "export format is not supported", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/categories/export")
+    public ResponseEntity<StreamingResponseBody> exportCategories(
+            @Parameter(description = "export format, ndjson or csv")
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(exportWriter.write(exportFormat, EXPORT_COLUMNS, categoryService::exportAll));
+    }
+
+    @Operation(summary = "search categories by similar name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "best matching categories, most similar first",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = Category.class)))}),
+            @ApiResponse(responseCode = "400", description = "query is empty or limit is out of range", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/categories/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Category> searchCategories(
+            @Parameter(description = "part of the category name, typos are tolerated")
+            @RequestParam String q,
+            @Parameter(description = "maximum number of matches")
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        return categoryService.search(q, limit);
+    }
+
+    @Operation(summary = "get categories by ids")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "categories in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CategoryView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping(value = "/categories", params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CategoryView> getCategoriesByIds(@Parameter(description = "comma separated category ids") @RequestParam List<Long> ids) {
+        return categoryService.getByIds(ids);
     }
 
+    @Operation(summary = "get categories by ids passed in the request body, for lists too long for a query string")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "categories in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CategoryView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/categories/by-ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<CategoryView> findCategoriesByIds(@Parameter(description = "category ids") @RequestBody List<Long> ids) {
+        return categoryService.getByIds(ids);
+    }
 
     @Operation(summary = "get category by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "category was found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Category.class))}),
+                            schema = @Schema(implementation = CategoryView.class))}),
+            @ApiResponse(responseCode = "304", description = "category was not modified since the version in If-None-Match or If-Modified-Since"),
             @ApiResponse(responseCode = "404", description = "category with this id not found", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))})
     })
     @GetMapping("/categories/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Category getCategoryById(@Parameter(description = "category id to be searched") @PathVariable Long id) {
-        return categoryService.getById(id);
+    public ResponseEntity<CategoryView> getCategoryById(@Parameter(description = "category id to be searched") @PathVariable Long id, WebRequest request) {
+
+        if (ConditionalRequests.isNotModified(request, categoryService.getRevision(id))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(categoryService.getById(id));
     }
 }
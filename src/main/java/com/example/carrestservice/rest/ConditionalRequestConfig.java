@@ -0,0 +1,24 @@
+package com.example.carrestservice.rest;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class ConditionalRequestConfig {
+
+    /**
+     * List responses depend on the page, sort, filter and fields, so their ETag is a hash of the rendered body.
+     * This does not save the query, but unchanged pages are answered with 304 and no payload.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listEtagFilter() {
+
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/cars", "/car-models", "/categories", "/manufacturers");
+
+        return registration;
+    }
+
+}
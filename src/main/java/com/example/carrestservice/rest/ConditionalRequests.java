@@ -0,0 +1,19 @@
+package com.example.carrestservice.rest;
+
+import com.example.carrestservice.view.Revision;
+import org.springframework.web.context.request.WebRequest;
+
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Adds the ETag and Last-Modified headers of the revision and answers with 304 when the client already has it.
+     */
+    static boolean isNotModified(WebRequest request, Revision revision) {
+        long lastModified = revision.getLastModified() == null ? -1 : revision.getLastModified().toEpochMilli();
+        return request.checkNotModified(revision.getETag(), lastModified);
+    }
+
+}
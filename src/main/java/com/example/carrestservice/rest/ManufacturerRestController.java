@@ -1,32 +1,58 @@
 package com.example.carrestservice.rest;
 
-import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.batch.BatchItemResult;
 import com.example.carrestservice.entity.Manufacturer;
 import com.example.carrestservice.exception.ApiError;
+import com.example.carrestservice.export.ExportColumn;
+import com.example.carrestservice.export.ExportFormat;
+import com.example.carrestservice.export.ExportWriter;
+import com.example.carrestservice.pagination.CursorCodec;
+import com.example.carrestservice.pagination.CursorPage;
+import com.example.carrestservice.pagination.PaginationHeaders;
 import com.example.carrestservice.service.ManufacturerService;
+import com.example.carrestservice.view.ManufacturerView;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 
 @Tag(name = "manufacturer" , description = "APIs for managing manufacturers, including create, update, delete, and retrieve operations.")
 @RestController
 public class ManufacturerRestController {
+    private static final List<ExportColumn<ManufacturerView>> EXPORT_COLUMNS = List.of(
+            ExportColumn.of("manufacturerId", ManufacturerView::getManufacturerId),
+            ExportColumn.of("manufacturerName", ManufacturerView::getManufacturerName)
+    );
+
     private ManufacturerService manufacturerService;
+    private CursorCodec cursorCodec;
+    private ExportWriter exportWriter;
 
-    public ManufacturerRestController(ManufacturerService manufacturerService) {
+    public ManufacturerRestController(ManufacturerService manufacturerService, CursorCodec cursorCodec, ExportWriter exportWriter) {
         this.manufacturerService = manufacturerService;
+        this.cursorCodec = cursorCodec;
+        this.exportWriter = exportWriter;
     }
 
     @Operation(summary = "create a new manufacturer", security = @SecurityRequirement(name = "bearerAuth"))
@@ -45,6 +71,22 @@ public class ManufacturerRestController {
         return manufacturerService.createManufacturer(manufacturer);
     }
 
+    @Operation(summary = "create manufacturers in bulk", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "per-item results of the batch",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = BatchItemResult.class)))}),
+            @ApiResponse(responseCode = "400", description = "manufacturers can not be null", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "409", description = "manufacturer with this name already exist", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/manufacturers/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BatchItemResult<Manufacturer>> createManufacturers(@Parameter(description = "manufacturers to be created") @RequestBody List<Manufacturer> manufacturers) {
+        return manufacturerService.createManufacturers(manufacturers);
+    }
+
     @Operation(summary = "update existing manufacturer", security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "manufacturer was updated",
@@ -81,7 +123,7 @@ public class ManufacturerRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Manufacturer.class))}),
+                            schema = @Schema(implementation = ManufacturerView.class))}),
             @ApiResponse(responseCode = "401", description = "offset must be a non-negative integer", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))}),
             @ApiResponse(responseCode = "401", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
@@ -89,7 +131,7 @@ public class ManufacturerRestController {
     })
     @GetMapping("/manufacturers")
     @ResponseStatus(HttpStatus.OK)
-    public Page<Manufacturer> getManufacturers(
+    public Slice<?> getManufacturers(
             @Parameter(description = "sort field")
             @RequestParam(required = false, defaultValue = "manufacturerId") String sortField,
             @Parameter(description = "sort direction")
@@ -97,7 +139,14 @@ public class ManufacturerRestController {
             @Parameter(description = "offset")
             @RequestParam(required = false, defaultValue = "0") int offset,
             @Parameter(description = "page size")
-            @RequestParam(required = false, defaultValue = "10") int pageSize){
+            @RequestParam(required = false, defaultValue = "10") int pageSize,
+            @Parameter(description = "whether to count the total number of elements")
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @Parameter(description = "whether to return an approximate total number of elements when it is not counted")
+            @RequestParam(required = false, defaultValue = "false") boolean withApproximateTotal,
+            @Parameter(description = "comma separated fields to return for manufacturers, e.g. manufacturerName")
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
 
         Sort.Direction direction = Sort.Direction.fromString(sortDirection);
 
@@ -105,23 +154,135 @@ public class ManufacturerRestController {
 
         Pageable pageable = PageRequest.of(offset, pageSize,sort);
 
-        return manufacturerService.getAll(pageable);
+        if (withTotal) {
+            return fields == null ? manufacturerService.getAll(pageable) : manufacturerService.getAll(fields, pageable);
+        }
+
+        if (withApproximateTotal) {
+            response.setHeader(PaginationHeaders.APPROXIMATE_TOTAL_COUNT, String.valueOf(manufacturerService.getApproximateCount()));
+        }
+
+        return fields == null ? manufacturerService.getSlice(pageable) : manufacturerService.getSlice(fields, pageable);
+    }
+
+    @Operation(summary = "get manufacturers using cursor pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPage.class))}),
+            @ApiResponse(responseCode = "400", description = "cursor or sort field is not valid", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+            @ApiResponse(responseCode = "400", description = "page size must be a positive integer", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))}),
+    })
+    @GetMapping("/manufacturers/scroll")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPage<Manufacturer> scrollManufacturers(
+            @Parameter(description = "sort field")
+            @RequestParam(required = false, defaultValue = "manufacturerId") String sortField,
+            @Parameter(description = "sort direction")
+            @RequestParam(required = false, defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "cursor of the last element of the previous page")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "cursor of the first element of the current page, returns the page before it")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "page size")
+            @RequestParam(required = false, defaultValue = "10") int pageSize) {
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+
+        Sort sort = Sort.by(direction, sortField);
+
+        KeysetScrollPosition scrollPosition = cursorCodec.decode(after, before);
+
+        Window<Manufacturer> window = manufacturerService.getAll(scrollPosition, sort, pageSize);
+
+        return cursorCodec.toCursorPage(window, scrollPosition);
+    }
+
+    @Operation(summary = "export all manufacturers as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "manufacturers are streamed one per line",
+                    content = {@Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = ManufacturerView.class)), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "export format is not supported", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/manufacturers/export")
+    public ResponseEntity<StreamingResponseBody> exportManufacturers(
+            @Parameter(description = "export format, ndjson or csv")
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(exportWriter.write(exportFormat, EXPORT_COLUMNS, manufacturerService::exportAll));
+    }
+
+    @Operation(summary = "search manufacturers by similar name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "best matching manufacturers, most similar first",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = Manufacturer.class)))}),
+            @ApiResponse(responseCode = "400", description = "query is empty or limit is out of range", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping("/manufacturers/search")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Manufacturer> searchManufacturers(
+            @Parameter(description = "part of the manufacturer name, typos are tolerated")
+            @RequestParam String q,
+            @Parameter(description = "maximum number of matches")
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+        return manufacturerService.search(q, limit);
     }
 
+    @Operation(summary = "get manufacturers by ids")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "manufacturers in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ManufacturerView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @GetMapping(value = "/manufacturers", params = "ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ManufacturerView> getManufacturersByIds(@Parameter(description = "comma separated manufacturer ids") @RequestParam List<Long> ids) {
+        return manufacturerService.getByIds(ids);
+    }
 
+    @Operation(summary = "get manufacturers by ids passed in the request body, for lists too long for a query string")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "manufacturers in the order of the requested ids, ids that do not exist are skipped",
+                    content = {@Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ManufacturerView.class)))}),
+            @ApiResponse(responseCode = "400", description = "ids are empty or too many ids are requested", content = {@Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiError.class))})
+    })
+    @PostMapping("/manufacturers/by-ids")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ManufacturerView> findManufacturersByIds(@Parameter(description = "manufacturer ids") @RequestBody List<Long> ids) {
+        return manufacturerService.getByIds(ids);
+    }
 
     @Operation(summary = "get manufacturer by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "manufacturer was found",
                     content = {@Content(mediaType = "application/json",
-                            schema = @Schema(implementation = CarModel.class))}),
+                            schema = @Schema(implementation = ManufacturerView.class))}),
+            @ApiResponse(responseCode = "304", description = "manufacturer was not modified since the version in If-None-Match or If-Modified-Since"),
             @ApiResponse(responseCode = "404", description = "manufacturer with this id not found", content = {@Content(mediaType = "application/json",
                     schema = @Schema(implementation = ApiError.class))})
     })
     @GetMapping("/manufacturers/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public Manufacturer getManufacturerById(@Parameter(description = "manufacturer id to be searched") @PathVariable Long id) {
-        return manufacturerService.getById(id);
+    public ResponseEntity<ManufacturerView> getManufacturerById(@Parameter(description = "manufacturer id to be searched") @PathVariable Long id, WebRequest request) {
+
+        if (ConditionalRequests.isNotModified(request, manufacturerService.getRevision(id))) {
+            return null;
+        }
+
+        return ResponseEntity.ok(manufacturerService.getById(id));
     }
 
 
@@ -0,0 +1,21 @@
+package com.example.carrestservice.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CarFacets implements Serializable {
+
+    private long totalCount;
+
+    private List<FacetCount> manufacturers;
+
+    private List<FacetCount> categories;
+
+    private List<FacetCount> manufactureYears;
+
+}
@@ -0,0 +1,40 @@
+package com.example.carrestservice.search;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CarFilter {
+
+    private Long manufacturerId;
+
+    private String manufacturerName;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private Integer yearFrom;
+
+    private Integer yearTo;
+
+    private String modelNamePrefix;
+
+    public boolean isEmpty() {
+        return manufacturerId == null
+                && manufacturerName == null
+                && categoryId == null
+                && categoryName == null
+                && yearFrom == null
+                && yearTo == null
+                && modelNamePrefix == null;
+    }
+
+}
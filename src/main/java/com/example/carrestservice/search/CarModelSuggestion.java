@@ -0,0 +1,14 @@
+package com.example.carrestservice.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CarModelSuggestion {
+
+    private long carModelId;
+
+    private String carModelName;
+
+}
@@ -0,0 +1,75 @@
+package com.example.carrestservice.search;
+
+import com.example.carrestservice.entity.Car;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class CarSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private CarSpecifications() {
+
+    }
+
+    public static Specification<Car> matching(CarFilter filter) {
+        return Specification.allOf(
+                manufacturerId(filter.getManufacturerId()),
+                manufacturerName(filter.getManufacturerName()),
+                categoryId(filter.getCategoryId()),
+                categoryName(filter.getCategoryName()),
+                yearFrom(filter.getYearFrom()),
+                yearTo(filter.getYearTo()),
+                modelNamePrefix(filter.getModelNamePrefix())
+        );
+    }
+
+    static Specification<Car> manufacturerId(Long manufacturerId) {
+        return (root, query, criteriaBuilder) -> manufacturerId == null
+                ? null
+                : criteriaBuilder.equal(root.get("manufacturer").get("manufacturerId"), manufacturerId);
+    }
+
+    static Specification<Car> manufacturerName(String manufacturerName) {
+        return (root, query, criteriaBuilder) -> manufacturerName == null
+                ? null
+                : criteriaBuilder.equal(root.join("manufacturer").get("manufacturerName"), manufacturerName);
+    }
+
+    static Specification<Car> categoryId(Long categoryId) {
+        return (root, query, criteriaBuilder) -> categoryId == null
+                ? null
+                : criteriaBuilder.equal(root.get("category").get("categoryId"), categoryId);
+    }
+
+    static Specification<Car> categoryName(String categoryName) {
+        return (root, query, criteriaBuilder) -> categoryName == null
+                ? null
+                : criteriaBuilder.equal(root.join("category").get("categoryName"), categoryName);
+    }
+
+    static Specification<Car> yearFrom(Integer yearFrom) {
+        return (root, query, criteriaBuilder) -> yearFrom == null
+                ? null
+                : criteriaBuilder.greaterThanOrEqualTo(root.get("manufactureYear"), yearFrom);
+    }
+
+    static Specification<Car> yearTo(Integer yearTo) {
+        return (root, query, criteriaBuilder) -> yearTo == null
+                ? null
+                : criteriaBuilder.lessThanOrEqualTo(root.get("manufactureYear"), yearTo);
+    }
+
+    static Specification<Car> modelNamePrefix(String modelNamePrefix) {
+        return (root, query, criteriaBuilder) -> modelNamePrefix == null
+                ? null
+                : criteriaBuilder.like(root.join("carModel").get("carModelName"), escapeLike(modelNamePrefix) + "%", LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(String value) {
+        return value
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.carrestservice.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+@Getter
+@AllArgsConstructor
+public class FacetCount implements Serializable {
+
+    private Long value;
+
+    private String name;
+
+    private long count;
+
+}
@@ -14,6 +14,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
+    static final String ADMIN_ROLE = "ADMIN";
+
     private CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler;
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -26,9 +28,16 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         httpSecurity
                 .authorizeRequests(authorize -> authorize
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        // Metrics and cache contents describe the data and the load, and caches can be evicted.
+                        .requestMatchers("/actuator/**").hasRole(ADMIN_ROLE)
+                        .requestMatchers("/admin/**").hasRole(ADMIN_ROLE)
                         .requestMatchers(HttpMethod.GET).permitAll()
+                        .requestMatchers(HttpMethod.POST, "/*/by-ids").permitAll()
                         .anyRequest().authenticated()
                 )
+                // Batch reads take their ids in the body, they change nothing a forged request could abuse.
+                .csrf(csrf -> csrf.ignoringRequestMatchers("/*/by-ids"))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .oauth2Login(oauth2Login ->
                         oauth2Login.userInfoEndpoint(userInfoEndpointConfig ->
@@ -0,0 +1,105 @@
+package com.example.carrestservice.service;
+
+import com.example.carrestservice.batch.BatchItemResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+final class BatchCreation<T, K> {
+
+    // Keeps each existing key lookup far below the 32767 bind parameters PostgreSQL accepts per statement.
+    static final int MAX_KEYS_PER_LOOKUP = 1000;
+
+    private final String nullItemMessage;
+
+    private final Function<T, K> keyExtractor;
+
+    private final Function<Set<K>, Set<K>> existingKeysLoader;
+
+    private final Function<T, String> conflictMessage;
+
+    BatchCreation(String nullItemMessage, Function<T, K> keyExtractor, Function<Set<K>, Set<K>> existingKeysLoader, Function<T, String> conflictMessage) {
+        this.nullItemMessage = nullItemMessage;
+        this.keyExtractor = keyExtractor;
+        this.existingKeysLoader = existingKeysLoader;
+        this.conflictMessage = conflictMessage;
+    }
+
+    List<BatchItemResult<T>> createAll(List<T> items, UnaryOperator<List<T>> saver) {
+
+        Set<K> keys = new HashSet<>();
+
+        for (T item : items) {
+            if (item != null) {
+                keys.add(keyExtractor.apply(item));
+            }
+        }
+
+        keys.remove(null);
+
+        Set<K> existingKeys = findExistingKeys(keys);
+
+        @SuppressWarnings("unchecked")
+        BatchItemResult<T>[] results = new BatchItemResult[items.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<T> acceptedItems = new ArrayList<>();
+        Set<K> acceptedKeys = new HashSet<>();
+
+        for (int index = 0; index < items.size(); index++) {
+
+            T item = items.get(index);
+
+            if (item == null) {
+                results[index] = BatchItemResult.invalid(index, nullItemMessage);
+                continue;
+            }
+
+            K key = keyExtractor.apply(item);
+
+            if (key != null && (existingKeys.contains(key) || !acceptedKeys.add(key))) {
+                results[index] = BatchItemResult.conflict(index, item, conflictMessage.apply(item));
+                continue;
+            }
+
+            acceptedIndexes.add(index);
+            acceptedItems.add(item);
+        }
+
+        if (!acceptedItems.isEmpty()) {
+
+            List<T> savedItems = saver.apply(acceptedItems);
+
+            for (int i = 0; i < acceptedIndexes.size(); i++) {
+                int index = acceptedIndexes.get(i);
+                results[index] = BatchItemResult.created(index, savedItems.get(i));
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private Set<K> findExistingKeys(Set<K> keys) {
+
+        Set<K> existingKeys = new HashSet<>();
+        List<K> chunk = new ArrayList<>(Math.min(keys.size(), MAX_KEYS_PER_LOOKUP));
+
+        for (K key : keys) {
+            chunk.add(key);
+            if (chunk.size() == MAX_KEYS_PER_LOOKUP) {
+                existingKeys.addAll(existingKeysLoader.apply(new HashSet<>(chunk)));
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            existingKeys.addAll(existingKeysLoader.apply(new HashSet<>(chunk)));
+        }
+
+        return existingKeys;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.example.carrestservice.service;
+
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+final class BatchLookup<V> {
+
+    static final int MAX_IDS = 1000;
+
+    private final ToLongFunction<V> idExtractor;
+
+    private final Function<Collection<Long>, List<V>> loader;
+
+    BatchLookup(ToLongFunction<V> idExtractor, Function<Collection<Long>, List<V>> loader) {
+        this.idExtractor = idExtractor;
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the values of the requested ids in request order, reading the cache first and loading all misses
+     * with a single call of the loader. Ids that do not exist are skipped.
+     */
+    List<V> findAll(List<Long> ids, Cache cache) {
+
+        List<Long> distinctIds = distinctIds(ids);
+
+        Map<Long, V> valuesById = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+
+        for (Long id : distinctIds) {
+
+            Cache.ValueWrapper cachedValue = cache.get(id);
+
+            if (cachedValue == null) {
+                missingIds.add(id);
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            V value = (V) cachedValue.get();
+            valuesById.put(id, value);
+        }
+
+        if (!missingIds.isEmpty()) {
+            for (V value : loader.apply(missingIds)) {
+                long id = idExtractor.applyAsLong(value);
+                valuesById.put(id, value);
+                cache.put(id, value);
+            }
+        }
+
+        return distinctIds.stream()
+                .map(valuesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    static List<Long> distinctIds(List<Long> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Ids cannot be empty.");
+        }
+
+        Set<Long> distinctIds = new LinkedHashSet<>();
+
+        for (Long id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("Ids cannot contain null.");
+            }
+            distinctIds.add(id);
+        }
+
+        if (distinctIds.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested.");
+        }
+
+        return List.copyOf(distinctIds);
+    }
+
+}
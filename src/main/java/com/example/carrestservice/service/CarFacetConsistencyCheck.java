@@ -0,0 +1,50 @@
+package com.example.carrestservice.service;
+
+import com.example.carrestservice.cache.CacheNames;
+import com.example.carrestservice.repository.CarFacetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Periodically recounts cars and rebuilds the trigger maintained facet counts when they disagree, for example after
+ * rows were changed with triggers disabled. Every replica is scheduled at the same time, so only the one that takes
+ * the advisory lock runs the check and the others skip it.
+ */
+@Component
+public class CarFacetConsistencyCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(CarFacetConsistencyCheck.class);
+
+    private CarFacetRepository carFacetRepository;
+
+    public CarFacetConsistencyCheck(CarFacetRepository carFacetRepository) {
+        this.carFacetRepository = carFacetRepository;
+    }
+
+    @Transactional
+    @Scheduled(cron = "${car-rest-service.facets.consistency-check-cron}")
+    @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    public boolean verify() {
+
+        if (!carFacetRepository.tryLockSummaryCheck()) {
+            log.debug("Car facet counts are being checked by another replica");
+            return false;
+        }
+
+        long driftedRows = carFacetRepository.countSummaryDrift();
+
+        if (driftedRows == 0) {
+            log.debug("Car facet counts are consistent");
+            return false;
+        }
+
+        log.warn("Car facet counts differ from cars in {} rows, rebuilding them", driftedRows);
+        carFacetRepository.rebuildSummary();
+        return true;
+    }
+
+}
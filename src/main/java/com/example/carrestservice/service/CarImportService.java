@@ -0,0 +1,66 @@
+package com.example.carrestservice.service;
+
+import com.example.carrestservice.batch.CarImportRejection;
+import com.example.carrestservice.batch.CarImportResult;
+import com.example.carrestservice.cache.CacheNames;
+import com.example.carrestservice.repository.CarImportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class CarImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CarImportService.class);
+
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private CarImportRepository carImportRepository;
+
+    public CarImportService(CarImportRepository carImportRepository) {
+        this.carImportRepository = carImportRepository;
+    }
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
+    public CarImportResult importCars(Reader csv) {
+
+        if (csv == null) {
+            throw new IllegalArgumentException("Car import file cannot be null!");
+        }
+
+        long start = System.nanoTime();
+
+        long totalRows = carImportRepository.copyToStaging(csv);
+
+        carImportRepository.resolveStaging();
+
+        long rejectedRows = carImportRepository.countRejected();
+        List<CarImportRejection> rejections = rejectedRows == 0
+                ? List.of()
+                : carImportRepository.findRejections(MAX_REPORTED_REJECTIONS);
+
+        CarImportRepository.MergedRows mergedRows = carImportRepository.mergeIntoCars();
+
+        long elapsedNanos = System.nanoTime() - start;
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        long rowsPerSecond = elapsedNanos == 0 ? totalRows : totalRows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+
+        log.info("Imported {} car rows in {} ms ({} rows/s): {} inserted, {} updated, {} rejected",
+                totalRows, elapsedMillis, rowsPerSecond, mergedRows.getInsertedRows(), mergedRows.getUpdatedRows(), rejectedRows);
+
+        return new CarImportResult(totalRows, mergedRows.getInsertedRows(), mergedRows.getUpdatedRows(),
+                rejectedRows, rejections, elapsedMillis, rowsPerSecond);
+    }
+
+}
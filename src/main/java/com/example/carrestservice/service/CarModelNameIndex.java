@@ -0,0 +1,228 @@
+package com.example.carrestservice.service;
+
+import com.example.carrestservice.search.CarModelSuggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable prefix index of car model names, kept as parallel arrays sorted by the case folded name.
+ * A lookup is a binary search for the first name starting with the prefix followed by a scan of at most
+ * {@code limit} entries, so suggestions never touch the database. Changes produce a new index.
+ */
+final class CarModelNameIndex {
+
+    private static final CarModelNameIndex EMPTY = new CarModelNameIndex(new String[0], new String[0], new long[0]);
+
+    private final String[] foldedNames;
+
+    private final String[] names;
+
+    private final long[] ids;
+
+    private CarModelNameIndex(String[] foldedNames, String[] names, long[] ids) {
+        this.foldedNames = foldedNames;
+        this.names = names;
+        this.ids = ids;
+    }
+
+    static CarModelNameIndex empty() {
+        return EMPTY;
+    }
+
+    static CarModelNameIndex of(Collection<CarModelSuggestion> carModels) {
+
+        List<CarModelSuggestion> sortedCarModels = new ArrayList<>(carModels.size());
+
+        for (CarModelSuggestion carModel : carModels) {
+            if (carModel.getCarModelName() != null) {
+                sortedCarModels.add(carModel);
+            }
+        }
+
+        sortedCarModels.sort(Comparator
+                .comparing((CarModelSuggestion carModel) -> fold(carModel.getCarModelName()))
+                .thenComparingLong(CarModelSuggestion::getCarModelId));
+
+        int size = sortedCarModels.size();
+        String[] foldedNames = new String[size];
+        String[] names = new String[size];
+        long[] ids = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            CarModelSuggestion carModel = sortedCarModels.get(i);
+            foldedNames[i] = fold(carModel.getCarModelName());
+            names[i] = carModel.getCarModelName();
+            ids[i] = carModel.getCarModelId();
+        }
+
+        return new CarModelNameIndex(foldedNames, names, ids);
+    }
+
+    List<CarModelSuggestion> suggest(String prefix, int limit) {
+
+        String foldedPrefix = fold(prefix);
+        List<CarModelSuggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+
+        for (int i = lowerBound(foldedPrefix, Long.MIN_VALUE); i < size() && suggestions.size() < limit; i++) {
+            if (!foldedNames[i].startsWith(foldedPrefix)) {
+                break;
+            }
+            suggestions.add(new CarModelSuggestion(ids[i], names[i]));
+        }
+
+        return suggestions;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * Adds a car model that is not in the index yet. A renamed car model must first be removed under its old name.
+     */
+    CarModelNameIndex with(long carModelId, String carModelName) {
+
+        if (carModelName == null) {
+            return this;
+        }
+
+        String foldedName = fold(carModelName);
+        int position = lowerBound(foldedName, carModelId);
+
+        if (position < size() && ids[position] == carModelId && foldedNames[position].equals(foldedName)) {
+            return this;
+        }
+
+        int size = size();
+
+        String[] foldedNames = new String[size + 1];
+        String[] names = new String[size + 1];
+        long[] ids = new long[size + 1];
+
+        System.arraycopy(this.foldedNames, 0, foldedNames, 0, position);
+        System.arraycopy(this.names, 0, names, 0, position);
+        System.arraycopy(this.ids, 0, ids, 0, position);
+
+        foldedNames[position] = foldedName;
+        names[position] = carModelName;
+        ids[position] = carModelId;
+
+        System.arraycopy(this.foldedNames, position, foldedNames, position + 1, size - position);
+        System.arraycopy(this.names, position, names, position + 1, size - position);
+        System.arraycopy(this.ids, position, ids, position + 1, size - position);
+
+        return new CarModelNameIndex(foldedNames, names, ids);
+    }
+
+    /**
+     * Adds car models that are not in the index yet in a single merge pass, instead of copying the arrays once per
+     * car model.
+     */
+    CarModelNameIndex withAll(Collection<CarModelSuggestion> carModels) {
+
+        CarModelNameIndex added = of(carModels);
+
+        if (added.size() == 0) {
+            return this;
+        }
+
+        int size = size() + added.size();
+        String[] foldedNames = new String[size];
+        String[] names = new String[size];
+        long[] ids = new long[size];
+
+        int i = 0;
+        int j = 0;
+
+        for (int k = 0; k < size; k++) {
+
+            boolean takeExisting = j == added.size() || (i < size() && compare(i, added.foldedNames[j], added.ids[j]) < 0);
+            CarModelNameIndex source = takeExisting ? this : added;
+            int position = takeExisting ? i++ : j++;
+
+            foldedNames[k] = source.foldedNames[position];
+            names[k] = source.names[position];
+            ids[k] = source.ids[position];
+        }
+
+        return new CarModelNameIndex(foldedNames, names, ids);
+    }
+
+    /**
+     * Removes a car model found by binary search on the name it is expected to be indexed under, falling back to a
+     * scan when it is indexed under another name.
+     */
+    CarModelNameIndex without(long carModelId, String carModelName) {
+
+        if (carModelName != null) {
+            int position = lowerBound(fold(carModelName), carModelId);
+            if (position < size() && ids[position] == carModelId) {
+                return removeAt(position);
+            }
+        }
+
+        return without(carModelId);
+    }
+
+    /**
+     * Removes a car model whose indexed name is not known, which takes a scan of the index.
+     */
+    CarModelNameIndex without(long carModelId) {
+
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == carModelId) {
+                return removeAt(i);
+            }
+        }
+
+        return this;
+    }
+
+    private CarModelNameIndex removeAt(int position) {
+
+        int size = size();
+
+        String[] foldedNames = Arrays.copyOf(this.foldedNames, size - 1);
+        String[] names = Arrays.copyOf(this.names, size - 1);
+        long[] ids = Arrays.copyOf(this.ids, size - 1);
+
+        System.arraycopy(this.foldedNames, position + 1, foldedNames, position, size - position - 1);
+        System.arraycopy(this.names, position + 1, names, position, size - position - 1);
+        System.arraycopy(this.ids, position + 1, ids, position, size - position - 1);
+
+        return new CarModelNameIndex(foldedNames, names, ids);
+    }
+
+    private int compare(int position, String foldedName, long carModelId) {
+        int comparison = foldedNames[position].compareTo(foldedName);
+        return comparison != 0 ? comparison : Long.compare(ids[position], carModelId);
+    }
+
+    private int lowerBound(String foldedName, long carModelId) {
+
+        int low = 0;
+        int high = size();
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (compare(middle, foldedName, carModelId) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+}
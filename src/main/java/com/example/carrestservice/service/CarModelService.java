@@ -1,40 +1,176 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.batch.BatchItemStatus;
+import com.example.carrestservice.cache.CacheInvalidationBus;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.CarModel;
 import com.example.carrestservice.exception.CarModelNameException;
 import com.example.carrestservice.exception.CarModelNotFoundException;
+import com.example.carrestservice.pagination.KeysetSort;
 import com.example.carrestservice.repository.CarModelRepository;
-import jakarta.transaction.Transactional;
+import com.example.carrestservice.repository.FieldsetRepository;
+import com.example.carrestservice.repository.NameSearchRepository;
+import com.example.carrestservice.search.CarModelSuggestion;
+import com.example.carrestservice.view.CarModelView;
+import com.example.carrestservice.view.Fieldset;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Service
 public class CarModelService {
 
+    private static final Map<String, Class<?>> KEYSET_SORT_FIELDS = Map.of("carModelId", Long.class, "carModelName", String.class);
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final List<String> FIELDS = List.of("carModelId", "carModelName");
+
     private CarModelRepository carModelRepository;
+    private EntityManager entityManager;
+    private NameSearchRepository nameSearchRepository;
+    private FieldsetRepository fieldsetRepository;
+    private CacheManager cacheManager;
+    private CacheInvalidationBus cacheInvalidationBus;
+    private BatchCreation<CarModel, String> carModelBatchCreation;
+    private BatchLookup<CarModelView> carModelBatchLookup;
+    private AtomicReference<CarModelNameIndex> carModelNameIndex = new AtomicReference<>(CarModelNameIndex.empty());
+    private ExistenceFilter carModelNameFilter;
 
-    public CarModelService(CarModelRepository carModelRepository) {
+    public CarModelService(CarModelRepository carModelRepository, EntityManager entityManager, NameSearchRepository nameSearchRepository, FieldsetRepository fieldsetRepository, CacheManager cacheManager, CacheInvalidationBus cacheInvalidationBus, MeterRegistry meterRegistry) {
         this.carModelRepository = carModelRepository;
+        this.entityManager = entityManager;
+        this.nameSearchRepository = nameSearchRepository;
+        this.fieldsetRepository = fieldsetRepository;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.carModelBatchLookup = new BatchLookup<>(CarModelView::getCarModelId, carModelRepository::findViewsByIds);
+        this.carModelNameFilter = new ExistenceFilter("carModelNames", meterRegistry);
+        // Batches ask the database rather than the name filter, which may miss names written on another replica;
+        // a failed flush would reject the whole batch instead of the conflicting items.
+        this.carModelBatchCreation = new BatchCreation<>(
+                "Car model cannot be null!",
+                CarModel::getCarModelName,
+                carModelRepository::findCarModelNamesIn,
+                carModel -> "Car model name " + carModel.getCarModelName() + " already exists!");
+        cacheInvalidationBus.subscribe(CacheNames.CAR_MODEL_SUGGESTIONS, carModelId -> {
+            if (carModelId == null) {
+                refreshSuggestions();
+            } else {
+                refreshSuggestion(carModelId);
+            }
+        });
     }
 
+    @PostConstruct
+    public void refreshSuggestions() {
+        carModelNameFilter.rebuild(() -> {
+            List<CarModelSuggestion> carModels = carModelRepository.findAllSuggestions();
+            carModelNameIndex.set(CarModelNameIndex.of(carModels));
+            return carModels.stream().map(CarModelSuggestion::getCarModelName).toList();
+        });
+    }
+
+    /**
+     * Applies a car model written on another replica, whether it was created, renamed or removed.
+     */
+    void refreshSuggestion(long carModelId) {
+
+        Optional<CarModelSuggestion> carModel = carModelRepository.findSuggestionById(carModelId);
+
+        carModel.ifPresent(suggestion -> carModelNameFilter.add(suggestion.getCarModelName()));
+        carModelNameIndex.updateAndGet(index -> carModel
+                .map(suggestion -> index.without(carModelId).with(carModelId, suggestion.getCarModelName()))
+                .orElseGet(() -> index.without(carModelId)));
+    }
+
+    @CacheEvict(cacheNames = CacheNames.CAR_MODELS, key = "#result.carModelId")
     public CarModel createCarModel(CarModel carModel) {
 
         if (carModel == null) {
             throw new IllegalArgumentException("Car model cannot be null!");
         }
 
-        if(carModelRepository.existsByCarModelName(carModel.getCarModelName())) {
-            throw new CarModelNameException("Car model name " + carModel.getCarModelName() + " already exists!");
+        CarModel createdCarModel;
+
+        try {
+            createdCarModel = carModelRepository.saveAndFlush(carModel);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CAR_MODEL_NAME)) {
+                throw new CarModelNameException("Car model name " + carModel.getCarModelName() + " already exists!");
+            }
+            throw e;
+        }
+
+        carModelNameFilter.add(createdCarModel.getCarModelName());
+        updateSuggestionsAfterCommit(List.of(createdCarModel.getCarModelId()), index -> index.with(createdCarModel.getCarModelId(), createdCarModel.getCarModelName()));
+
+        return createdCarModel;
+    }
+
+    @Transactional
+    public List<BatchItemResult<CarModel>> createCarModels(List<CarModel> carModels) {
+
+        if (carModels == null) {
+            throw new IllegalArgumentException("Car models cannot be null!");
         }
 
-        return carModelRepository.save(carModel);
+        List<BatchItemResult<CarModel>> results;
+
+        try {
+            results = carModelBatchCreation.createAll(carModels, carModelRepository::saveAllAndFlush);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CAR_MODEL_NAME)) {
+                throw new CarModelNameException("One of the car model names already exists!");
+            }
+            throw e;
+        }
+
+        List<CarModel> createdCarModels = results.stream()
+                .filter(result -> result.getStatus() == BatchItemStatus.CREATED)
+                .map(BatchItemResult::getItem)
+                .toList();
+
+        createdCarModels.forEach(createdCarModel -> carModelNameFilter.add(createdCarModel.getCarModelName()));
+
+        List<CarModelSuggestion> createdSuggestions = createdCarModels.stream()
+                .map(createdCarModel -> new CarModelSuggestion(createdCarModel.getCarModelId(), createdCarModel.getCarModelName()))
+                .toList();
 
+        updateSuggestionsAfterCommit(createdCarModels.stream().map(CarModel::getCarModelId).toList(), index -> index.withAll(createdSuggestions));
+
+        return results;
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CAR_MODELS, key = "#carModel.carModelId"),
+            @CacheEvict(cacheNames = CacheNames.CARS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
     public void updateCarModel(CarModel carModel) {
 
         if (carModel == null) {
@@ -44,26 +180,90 @@ public class CarModelService {
         CarModel updatedCarModel = carModelRepository.findById(carModel.getCarModelId())
                 .orElseThrow(() -> new CarModelNotFoundException("Car model with Id " + carModel.getCarModelId() + " not found."));
 
+        String previousCarModelName = updatedCarModel.getCarModelName();
+
         Optional.of(carModel.getCarModelName())
-                .filter(carModelName -> !carModelRepository.existsByCarModelName(carModelName))
+                .filter(carModelName -> !carModelNameFilter.exists(carModelName, carModelRepository::existsByCarModelName))
                 .ifPresentOrElse(
                         updatedCarModelName -> updatedCarModel.setCarModelName(updatedCarModelName),
                         () -> {
                             throw new CarModelNameException("Car model name " + carModel.getCarModelName() + " already exists!");
                         }
                 );
+
+        // The filter may not hold a name another replica has just written, the unique constraint has the last word.
+        try {
+            carModelRepository.saveAndFlush(updatedCarModel);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CAR_MODEL_NAME)) {
+                throw new CarModelNameException("Car model name " + carModel.getCarModelName() + " already exists!");
+            }
+            throw e;
+        }
+
+        carModelNameFilter.add(updatedCarModel.getCarModelName());
+        updateSuggestionsAfterCommit(List.of(updatedCarModel.getCarModelId()), index -> index
+                .without(updatedCarModel.getCarModelId(), previousCarModelName)
+                .with(updatedCarModel.getCarModelId(), updatedCarModel.getCarModelName()));
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CAR_MODELS, key = "#carModelId"),
+            @CacheEvict(cacheNames = CacheNames.CARS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
+    @Transactional
     public void removeById(long carModelId) {
 
-        if(!carModelRepository.existsByCarModelId(carModelId)) {
+        if (carModelRepository.deleteByCarModelId(carModelId) == 0) {
             throw new CarModelNotFoundException("Car model with Id " + carModelId + " not found.");
-        } else {
-            carModelRepository.deleteById(carModelId);
         }
 
+        updateSuggestionsAfterCommit(List.of(carModelId), index -> index.without(carModelId));
+    }
+    @Transactional(readOnly = true)
+    public Page<CarModelView> getAll(Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        return carModelRepository.findViewPage(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<CarModelView> getSlice(Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        return carModelRepository.findViewSlice(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAll(String fields, Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return fieldsetRepository.findPage(CarModel.class, (root, query, criteriaBuilder) -> null, fieldset, pageable);
     }
-    public Page<CarModel> getAll(Pageable pageable) {
+
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> getSlice(String fields, Pageable pageable) {
 
         if (pageable.getOffset() < 0) {
             throw new IllegalArgumentException("Offset must be a non-negative integer.");
@@ -72,13 +272,78 @@ public class CarModelService {
             throw new IllegalArgumentException("Page size must be a positive integer.");
         }
 
-        return carModelRepository.findAll(pageable);
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return fieldsetRepository.findSlice(CarModel.class, (root, query, criteriaBuilder) -> null, fieldset, pageable);
+    }
+
+    public long getApproximateCount() {
+        return carModelRepository.estimateCount();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<CarModel> consumer) {
+        try (Stream<CarModel> carModels = carModelRepository.streamAllByOrderByCarModelId()) {
+            EntityStreams.forEachDetached(carModels, entityManager, consumer);
+        }
+    }
+
+    public Window<CarModel> getAll(KeysetScrollPosition scrollPosition, Sort sort, int pageSize) {
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        Sort keysetSort = KeysetSort.withTiebreaker(sort, KEYSET_SORT_FIELDS, "carModelId");
+
+        KeysetScrollPosition keysetPosition = KeysetSort.validatePosition(scrollPosition, keysetSort, KEYSET_SORT_FIELDS);
+
+        return carModelRepository.findAllBy(keysetPosition, keysetSort, Limit.of(pageSize));
+    }
+
+    public List<CarModel> search(String query, int limit) {
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty.");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".");
+        }
+
+        return nameSearchRepository.searchCarModels(query.strip(), limit);
     }
 
-    public CarModel getById(long carModelId) {
-        return carModelRepository.findById(carModelId)
+    public List<CarModelSuggestion> suggest(String prefix, int limit) {
+
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix cannot be empty.");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".");
+        }
+
+        return carModelNameIndex.get().suggest(prefix.stripLeading(), limit);
+    }
+
+    // Concurrent misses of the same car model wait for a single load, the cache records how long they wait. Not
+    // transactional, so waiting callers do not hold a connection each.
+    @Cacheable(cacheNames = CacheNames.CAR_MODELS, key = "#carModelId", sync = true)
+    public CarModelView getById(long carModelId) {
+        return carModelRepository.findViewById(carModelId)
                 .orElseThrow(() -> new CarModelNotFoundException("Car model with Id " + carModelId + " not found."));
     }
 
+    @Transactional(readOnly = true)
+    public List<CarModelView> getByIds(List<Long> carModelIds) {
+        return carModelBatchLookup.findAll(carModelIds, cacheManager.getCache(CacheNames.CAR_MODELS));
+    }
+
+    // Other replicas are told which car models changed and reload only those.
+    private void updateSuggestionsAfterCommit(List<Long> carModelIds, UnaryOperator<CarModelNameIndex> change) {
+        TransactionCallbacks.afterCommit(() -> {
+            carModelNameIndex.updateAndGet(change);
+            carModelIds.forEach(carModelId -> cacheInvalidationBus.publish(CacheNames.CAR_MODEL_SUGGESTIONS, carModelId));
+        });
+    }
 
 }
@@ -1,39 +1,122 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Car;
 import com.example.carrestservice.exception.CarException;
 import com.example.carrestservice.exception.CarNotFoundException;
+import com.example.carrestservice.pagination.KeysetSort;
+import com.example.carrestservice.repository.CarFacetRepository;
 import com.example.carrestservice.repository.CarRepository;
-import jakarta.transaction.Transactional;
+import com.example.carrestservice.repository.FieldsetRepository;
+import com.example.carrestservice.search.CarFacets;
+import com.example.carrestservice.search.CarFilter;
+import com.example.carrestservice.search.CarSpecifications;
+import com.example.carrestservice.view.CarView;
+import com.example.carrestservice.view.Fieldset;
+import jakarta.persistence.EntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class CarService {
 
+    private static final Map<String, Class<?>> KEYSET_SORT_FIELDS = Map.of("carId", Long.class, "manufactureYear", Integer.class);
+
+    private static final List<String> FIELDS = List.of(
+            "carId",
+            "manufacturer.manufacturerId", "manufacturer.manufacturerName",
+            "manufactureYear",
+            "carModel.carModelId", "carModel.carModelName",
+            "category.categoryId", "category.categoryName");
+
     private CarRepository carRepository;
+    private EntityManager entityManager;
+    private CarFacetRepository carFacetRepository;
+    private FieldsetRepository fieldsetRepository;
+    private CacheManager cacheManager;
+    private BatchCreation<Car, Long> carBatchCreation;
+    private BatchLookup<CarView> carBatchLookup;
 
-    public CarService(CarRepository carRepository) {
+    public CarService(CarRepository carRepository, EntityManager entityManager, CarFacetRepository carFacetRepository, FieldsetRepository fieldsetRepository, CacheManager cacheManager) {
         this.carRepository = carRepository;
+        this.entityManager = entityManager;
+        this.carFacetRepository = carFacetRepository;
+        this.fieldsetRepository = fieldsetRepository;
+        this.cacheManager = cacheManager;
+        this.carBatchLookup = new BatchLookup<>(CarView::getCarId, carRepository::findViewsByIds);
+        this.carBatchCreation = new BatchCreation<>(
+                "Car cannot be null!",
+                car -> car.getCarModel() == null ? null : car.getCarModel().getCarModelId(),
+                carRepository::findCarModelIdsIn,
+                car -> "Car with car model Id " + car.getCarModel().getCarModelId() + " already exist!");
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, key = "#result.carId"),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
     public Car createCar(Car car) {
 
         if(car == null) {
             throw new IllegalArgumentException("Car cannot be null!");
         }
 
-        if(carRepository.existsByCarModel_CarModelId(car.getCarModel().getCarModelId())) {
-            throw new CarException("Car with car model Id " + car.getCarModel().getCarModelId() + " already exist!");
+        try {
+            return carRepository.saveAndFlush(car);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CAR_MODEL_ID)) {
+                throw new CarException("Car with car model Id " + car.getCarModel().getCarModelId() + " already exist!");
+            }
+            throw e;
+        }
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    public List<BatchItemResult<Car>> createCars(List<Car> cars) {
+
+        if (cars == null) {
+            throw new IllegalArgumentException("Cars cannot be null!");
+        }
+
+        List<BatchItemResult<Car>> results;
+
+        try {
+            results = carBatchCreation.createAll(cars, carRepository::saveAllAndFlush);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CAR_MODEL_ID)) {
+                throw new CarException("One of the car model Ids already exists!");
+            }
+            throw e;
         }
 
-        return carRepository.save(car);
+        return results;
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, key = "#car.carId"),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
     public void updateCar(Car car) {
 
         if(car == null) {
@@ -57,17 +140,72 @@ public class CarService {
         updatedCar.setCategory(car.getCategory());
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, key = "#carId"),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
+    @Transactional
     public void removeById(long carId) {
 
-       if(!carRepository.existsByCarId(carId)) {
-           throw new CarNotFoundException("Car with Id " + carId + " not found!");
-       } else {
-            carRepository.deleteById(carId);
-       }
+        if (carRepository.deleteByCarId(carId) == 0) {
+            throw new CarNotFoundException("Car with Id " + carId + " not found!");
+        }
+
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CarView> getAll(Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        return carRepository.findViewPage(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<CarView> getAll(CarFilter filter, Pageable pageable) {
+
+        if (filter.isEmpty()) {
+            return getAll(pageable);
+        }
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        validate(filter);
+
+        return carRepository.findMatchingViewPage(CarSpecifications.matching(filter), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<CarView> getSlice(CarFilter filter, Pageable pageable) {
+
+        if (filter.isEmpty()) {
+            return getSlice(pageable);
+        }
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        validate(filter);
 
+        return carRepository.findMatchingViewSlice(CarSpecifications.matching(filter), pageable);
     }
 
-    public Page<Car> getAll(Pageable pageable) {
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAll(CarFilter filter, String fields, Pageable pageable) {
 
         if (pageable.getOffset() < 0) {
             throw new IllegalArgumentException("Offset must be a non-negative integer.");
@@ -76,13 +214,99 @@ public class CarService {
             throw new IllegalArgumentException("Page size must be a positive integer.");
         }
 
-        return carRepository.findAll(pageable);
+        validate(filter);
+
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return fieldsetRepository.findPage(Car.class, CarSpecifications.matching(filter), fieldset, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> getSlice(CarFilter filter, String fields, Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        validate(filter);
+
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return fieldsetRepository.findSlice(Car.class, CarSpecifications.matching(filter), fieldset, pageable);
+    }
+
+    @Cacheable(cacheNames = CacheNames.CAR_FACETS, key = "#filter")
+    public CarFacets getFacets(CarFilter filter) {
+
+        if (filter.isEmpty()) {
+            return carFacetRepository.countFacetsFromSummary();
+        }
+
+        validate(filter);
+
+        return carFacetRepository.countFacets(filter);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<CarView> getSlice(Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        return carRepository.findViewSlice(pageable);
     }
 
+    public long getApproximateCount() {
+        return carRepository.estimateCount();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Car> consumer) {
+        try (Stream<Car> cars = carRepository.streamAllByOrderByCarId()) {
+            EntityStreams.forEachDetached(cars, entityManager, consumer);
+        }
+    }
+
+    public Window<Car> getAll(KeysetScrollPosition scrollPosition, Sort sort, int pageSize) {
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        Sort keysetSort = KeysetSort.withTiebreaker(sort, KEYSET_SORT_FIELDS, "carId");
+
+        KeysetScrollPosition keysetPosition = KeysetSort.validatePosition(scrollPosition, keysetSort, KEYSET_SORT_FIELDS);
+
+        return carRepository.findAllBy(keysetPosition, keysetSort, Limit.of(pageSize));
+    }
 
-    public Car getById(long carId) {
-        return carRepository.findById(carId)
+    // Concurrent misses of the same car wait for a single load, the cache records how long they wait. Not
+    // transactional, so waiting callers do not hold a connection each.
+    @Cacheable(cacheNames = CacheNames.CARS, key = "#carId", sync = true)
+    public CarView getById(long carId) {
+        return carRepository.findViewById(carId)
                 .orElseThrow(() -> new CarNotFoundException("Car with Id " + carId + " not found."));
     }
 
+    @Transactional(readOnly = true)
+    public List<CarView> getByIds(List<Long> carIds) {
+        return carBatchLookup.findAll(carIds, cacheManager.getCache(CacheNames.CARS));
+    }
+
+    private static void validate(CarFilter filter) {
+        if (filter.getYearFrom() != null && filter.getYearTo() != null && filter.getYearFrom() > filter.getYearTo()) {
+            throw new IllegalArgumentException("Manufacture year range is not valid.");
+        }
+        if (filter.getModelNamePrefix() != null && filter.getModelNamePrefix().isEmpty()) {
+            throw new IllegalArgumentException("Model name prefix cannot be empty.");
+        }
+    }
+
 }
@@ -1,20 +1,71 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.cache.CacheInvalidationBus;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Category;
 import com.example.carrestservice.exception.CategoryNameException;
 import com.example.carrestservice.exception.CategoryNotFoundException;
+import com.example.carrestservice.pagination.KeysetSort;
 import com.example.carrestservice.repository.CategoryRepository;
+import com.example.carrestservice.repository.NameSearchRepository;
+import com.example.carrestservice.view.CategoryView;
+import com.example.carrestservice.view.Fieldset;
+import com.example.carrestservice.view.Revision;
+import jakarta.annotation.PostConstruct;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class CategoryService {
+
+    private static final Map<String, Class<?>> KEYSET_SORT_FIELDS = Map.of("categoryId", Long.class, "categoryName", String.class);
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final List<String> FIELDS = List.of("categoryId", "categoryName");
+
+    private static final Map<String, Comparator<CategoryView>> SORT_FIELDS = Map.of(
+            "categoryId", Comparator.comparingLong(CategoryView::getCategoryId),
+            "categoryName", Comparator.comparing(CategoryView::getCategoryName, Comparator.nullsLast(Comparator.naturalOrder()))
+    );
+
     private CategoryRepository categoryRepository;
-    public CategoryService(CategoryRepository categoryRepository) {
+    private NameSearchRepository nameSearchRepository;
+    private BatchCreation<Category, String> categoryBatchCreation;
+    private ReferenceDataHolder<CategoryView> categorySnapshot;
+
+    public CategoryService(CategoryRepository categoryRepository, NameSearchRepository nameSearchRepository, CacheInvalidationBus cacheInvalidationBus) {
         this.categoryRepository = categoryRepository;
+        this.nameSearchRepository = nameSearchRepository;
+        this.categorySnapshot = new ReferenceDataHolder<>(CacheNames.CATEGORIES, () ->
+                ReferenceDataSnapshot.of(categoryRepository.findAllViews(), CategoryView::getCategoryId, CategoryView::getCategoryName, SORT_FIELDS), cacheInvalidationBus);
+        this.categoryBatchCreation = new BatchCreation<>(
+                "Category cannot be null!",
+                Category::getCategoryName,
+                categoryRepository::findCategoryNamesIn,
+                category -> "Category name " + category.getCategoryName() + " already exists!");
+    }
+
+    @PostConstruct
+    public void refreshSnapshot() {
+        categorySnapshot.refresh();
     }
 
     public Category createCategory(Category category) {
@@ -23,13 +74,50 @@ public class CategoryService {
             throw new IllegalArgumentException("Category cannot be null!");
         }
 
-        if(categoryRepository.existsByCategoryName(category.getCategoryName())) {
-            throw new CategoryNameException("Category name " + category.getCategoryName() + " already exists!");
+        Category createdCategory;
+
+        try {
+            createdCategory = categoryRepository.saveAndFlush(category);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CATEGORY_NAME)) {
+                throw new CategoryNameException("Category name " + category.getCategoryName() + " already exists!");
+            }
+            throw e;
+        }
+
+        categorySnapshot.refreshAfterCommit();
+
+        return createdCategory;
+    }
+
+    @Transactional
+    public List<BatchItemResult<Category>> createCategories(List<Category> categories) {
+
+        if (categories == null) {
+            throw new IllegalArgumentException("Categories cannot be null!");
+        }
+
+        List<BatchItemResult<Category>> results;
+
+        try {
+            results = categoryBatchCreation.createAll(categories, categoryRepository::saveAllAndFlush);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CATEGORY_NAME)) {
+                throw new CategoryNameException("One of the category names already exists!");
+            }
+            throw e;
         }
 
-        return categoryRepository.save(category);
+        categorySnapshot.refreshAfterCommit();
+
+        return results;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
     public void updateCategory(Category category) {
 
         if (category == null) {
@@ -41,7 +129,7 @@ public class CategoryService {
 
 
         Optional.of(updatedCategory.getCategoryName())
-                .filter(categoryName -> !categoryRepository.existsByCategoryName(category.getCategoryName()))
+                .filter(categoryName -> !categorySnapshot.get().existsByName(category.getCategoryName()))
                 .ifPresentOrElse(
                         categoryName -> updatedCategory.setCategoryName(category.getCategoryName()),
                         () -> {
@@ -49,21 +137,50 @@ public class CategoryService {
                         }
                 );
 
+        // The snapshot may predate a name written concurrently, the unique constraint has the last word.
+        try {
+            categoryRepository.saveAndFlush(updatedCategory);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.CATEGORY_NAME)) {
+                throw new CategoryNameException("Category name " + category.getCategoryName() + " already exists!");
+            }
+            throw e;
+        }
+
+        categorySnapshot.refreshAfterCommit();
+
     }
 
 
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
+    @Transactional
     public void removeById(long categoryId) {
 
-        if(!categoryRepository.existsByCategoryId(categoryId)) {
+        if (categoryRepository.deleteByCategoryId(categoryId) == 0) {
             throw new CategoryNotFoundException("Category with Id " + categoryId + " not found.");
-        } else {
-            categoryRepository.deleteById(categoryId);
         }
 
+        categorySnapshot.refreshAfterCommit();
+
+    }
+
+    public Page<CategoryView> getAll(Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        return categorySnapshot.get().findAll(pageable);
     }
 
-    public Page<Category> getAll(Pageable pageable) {
+    public Slice<CategoryView> getSlice(Pageable pageable) {
 
         if (pageable.getOffset() < 0) {
             throw new IllegalArgumentException("Offset must be a non-negative integer.");
@@ -72,13 +189,86 @@ public class CategoryService {
             throw new IllegalArgumentException("Page size must be a positive integer.");
         }
 
-        return categoryRepository.findAll(pageable);
+        return categorySnapshot.get().findSlice(pageable);
+    }
+
+    public Page<Map<String, Object>> getAll(String fields, Pageable pageable) {
+
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return getAll(pageable).map(category -> fieldset.toRow(field -> fieldValue(category, field)));
+    }
+
+    public Slice<Map<String, Object>> getSlice(String fields, Pageable pageable) {
+
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return getSlice(pageable).map(category -> fieldset.toRow(field -> fieldValue(category, field)));
+    }
+
+    public long getApproximateCount() {
+        return categorySnapshot.get().size();
+    }
+
+    public List<CategoryView> getAll() {
+        return categorySnapshot.get().findAll();
+    }
+
+    public void exportAll(Consumer<CategoryView> consumer) {
+        categorySnapshot.get().findAll().forEach(consumer);
+    }
+
+    public Window<Category> getAll(KeysetScrollPosition scrollPosition, Sort sort, int pageSize) {
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        Sort keysetSort = KeysetSort.withTiebreaker(sort, KEYSET_SORT_FIELDS, "categoryId");
+
+        KeysetScrollPosition keysetPosition = KeysetSort.validatePosition(scrollPosition, keysetSort, KEYSET_SORT_FIELDS);
+
+        return categoryRepository.findAllBy(keysetPosition, keysetSort, Limit.of(pageSize));
+    }
+
+    public List<Category> search(String query, int limit) {
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty.");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".");
+        }
+
+        return nameSearchRepository.searchCategories(query.strip(), limit);
     }
-    public Category getById(long categoryId) {
 
-        return categoryRepository.findById(categoryId)
+    public CategoryView getById(long categoryId) {
+
+        return categorySnapshot.get().findById(categoryId)
                 .orElseThrow(() -> new CategoryNotFoundException("Category with Id " + categoryId + " not found."));
 
     }
 
+    public Revision getRevision(long categoryId) {
+
+        CategoryView category = getById(categoryId);
+
+        return new Revision(category.getVersion(), category.getLastModified());
+    }
+
+    public List<CategoryView> getByIds(List<Long> categoryIds) {
+
+        ReferenceDataSnapshot<CategoryView> snapshot = categorySnapshot.get();
+
+        return BatchLookup.distinctIds(categoryIds).stream()
+                .map(snapshot::findById)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    private static Object fieldValue(CategoryView category, String field) {
+        return field.equals("categoryId") ? category.getCategoryId() : category.getCategoryName();
+    }
+
 }
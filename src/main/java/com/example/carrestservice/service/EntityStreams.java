@@ -0,0 +1,31 @@
+package com.example.carrestservice.service;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+final class EntityStreams {
+
+    static final int CHUNK_SIZE = 500;
+
+    private EntityStreams() {
+
+    }
+
+    static <T> void forEachDetached(Stream<T> stream, EntityManager entityManager, Consumer<T> consumer) {
+
+        Iterator<T> iterator = stream.iterator();
+        int count = 0;
+
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+
+            if (++count % CHUNK_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+}
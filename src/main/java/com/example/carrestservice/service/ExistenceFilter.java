@@ -0,0 +1,142 @@
+package com.example.carrestservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Answers existence checks of unique names from memory when a Bloom filter proves the name absent, and asks the
+ * repository otherwise. The filter is rebuilt from all names and names are added as they are written; removed names
+ * stay in the filter as false positives until the next rebuild. Until the first rebuild every check goes to the
+ * repository.
+ */
+final class ExistenceFilter {
+
+    static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    // Room for the names written until the next rebuild before the false positive probability degrades.
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final int MIN_EXPECTED_INSERTIONS = 1024;
+
+    // Rebuilds query the database while holding it, a monitor would pin the carrier of a virtual thread.
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private volatile BloomFilter filter;
+
+    // Names written while a rebuild is loading, they may be missing from the names it loaded.
+    private List<String> addedDuringRebuild;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    ExistenceFilter(String name, MeterRegistry meterRegistry) {
+        this.negatives = Counter.builder("existence.filter.checks")
+                .description("Existence checks answered by the Bloom filter (negative) or passed to the database (positive)")
+                .tag("filter", name)
+                .tag("result", "negative")
+                .register(meterRegistry);
+        this.positives = Counter.builder("existence.filter.checks")
+                .description("Existence checks answered by the Bloom filter (negative) or passed to the database (positive)")
+                .tag("filter", name)
+                .tag("result", "positive")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("existence.filter.false.positives")
+                .description("Names the Bloom filter reported as possibly present that the database did not contain")
+                .tag("filter", name)
+                .register(meterRegistry);
+        Gauge.builder("existence.filter.false.positive.rate", this, ExistenceFilter::observedFalsePositiveRate)
+                .description("Share of absent names that still had to be checked in the database")
+                .tag("filter", name)
+                .register(meterRegistry);
+        Gauge.builder("existence.filter.expected.false.positive.rate", this, ExistenceFilter::expectedFalsePositiveRate)
+                .description("False positive probability of the Bloom filter for the names it currently holds")
+                .tag("filter", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replaces the filter with one holding the loaded names and any name added while they were loading.
+     */
+    void rebuild(Supplier<? extends Collection<String>> loader) {
+
+        rebuildLock.lock();
+
+        try {
+            synchronized (this) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+
+            Collection<String> names = loader.get();
+            BloomFilter rebuiltFilter = BloomFilter.create(Math.max(MIN_EXPECTED_INSERTIONS, (long) names.size() * GROWTH_FACTOR), FALSE_POSITIVE_PROBABILITY);
+
+            for (String name : names) {
+                if (name != null) {
+                    rebuiltFilter.put(name);
+                }
+            }
+
+            synchronized (this) {
+                addedDuringRebuild.forEach(rebuiltFilter::put);
+                addedDuringRebuild = null;
+                filter = rebuiltFilter;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    synchronized void add(String name) {
+
+        if (name == null) {
+            return;
+        }
+
+        if (filter != null) {
+            filter.put(name);
+        }
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(name);
+        }
+    }
+
+    boolean exists(String name, Predicate<String> repositoryCheck) {
+
+        if (mightContain(name)) {
+            positives.increment();
+            boolean exists = repositoryCheck.test(name);
+            if (!exists) {
+                falsePositives.increment();
+            }
+            return exists;
+        }
+
+        negatives.increment();
+        return false;
+    }
+
+    private boolean mightContain(String name) {
+        BloomFilter currentFilter = filter;
+        return name == null || currentFilter == null || currentFilter.mightContain(name);
+    }
+
+    private double observedFalsePositiveRate() {
+        double absent = negatives.count() + falsePositives.count();
+        return absent == 0 ? 0 : falsePositives.count() / absent;
+    }
+
+    private double expectedFalsePositiveRate() {
+        BloomFilter currentFilter = filter;
+        return currentFilter == null ? 0 : currentFilter.expectedFalsePositiveProbability();
+    }
+
+}
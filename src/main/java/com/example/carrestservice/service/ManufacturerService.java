@@ -1,21 +1,71 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.cache.CacheInvalidationBus;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Manufacturer;
 import com.example.carrestservice.exception.ManufacturerNameException;
 import com.example.carrestservice.exception.ManufacturerNotFoundException;
+import com.example.carrestservice.pagination.KeysetSort;
 import com.example.carrestservice.repository.ManufacturerRepository;
+import com.example.carrestservice.repository.NameSearchRepository;
+import com.example.carrestservice.view.ManufacturerView;
+import com.example.carrestservice.view.Fieldset;
+import com.example.carrestservice.view.Revision;
+import jakarta.annotation.PostConstruct;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ManufacturerService {
+
+    private static final Map<String, Class<?>> KEYSET_SORT_FIELDS = Map.of("manufacturerId", Long.class, "manufacturerName", String.class);
+
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private static final List<String> FIELDS = List.of("manufacturerId", "manufacturerName");
+
+    private static final Map<String, Comparator<ManufacturerView>> SORT_FIELDS = Map.of(
+            "manufacturerId", Comparator.comparingLong(ManufacturerView::getManufacturerId),
+            "manufacturerName", Comparator.comparing(ManufacturerView::getManufacturerName, Comparator.nullsLast(Comparator.naturalOrder()))
+    );
+
     private ManufacturerRepository manufacturerRepository;
+    private NameSearchRepository nameSearchRepository;
+    private BatchCreation<Manufacturer, String> manufacturerBatchCreation;
+    private ReferenceDataHolder<ManufacturerView> manufacturerSnapshot;
 
-    public ManufacturerService(ManufacturerRepository manufacturerRepository) {
+    public ManufacturerService(ManufacturerRepository manufacturerRepository, NameSearchRepository nameSearchRepository, CacheInvalidationBus cacheInvalidationBus) {
         this.manufacturerRepository = manufacturerRepository;
+        this.nameSearchRepository = nameSearchRepository;
+        this.manufacturerSnapshot = new ReferenceDataHolder<>(CacheNames.MANUFACTURERS, () ->
+                ReferenceDataSnapshot.of(manufacturerRepository.findAllViews(), ManufacturerView::getManufacturerId, ManufacturerView::getManufacturerName, SORT_FIELDS), cacheInvalidationBus);
+        this.manufacturerBatchCreation = new BatchCreation<>(
+                "Manufacturer cannot be null!",
+                Manufacturer::getManufacturerName,
+                manufacturerRepository::findManufacturerNamesIn,
+                manufacturer -> "Manufacturer name " + manufacturer.getManufacturerName() + " already exists!");
+    }
+
+    @PostConstruct
+    public void refreshSnapshot() {
+        manufacturerSnapshot.refresh();
     }
 
     public Manufacturer createManufacturer(Manufacturer manufacturer) {
@@ -24,14 +74,51 @@ public class ManufacturerService {
             throw new IllegalArgumentException("Manufacturer cannot be null!");
         }
 
-        if (manufacturerRepository.existsByManufacturerName(manufacturer.getManufacturerName())) {
-            throw new ManufacturerNameException("Manufacturer name " + manufacturer.getManufacturerName() + " already exists!");
+        Manufacturer createdManufacturer;
+
+        try {
+            createdManufacturer = manufacturerRepository.saveAndFlush(manufacturer);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.MANUFACTURER_NAME)) {
+                throw new ManufacturerNameException("Manufacturer name " + manufacturer.getManufacturerName() + " already exists!");
+            }
+            throw e;
+        }
+
+        manufacturerSnapshot.refreshAfterCommit();
+
+        return createdManufacturer;
+
+    }
+
+    @Transactional
+    public List<BatchItemResult<Manufacturer>> createManufacturers(List<Manufacturer> manufacturers) {
+
+        if (manufacturers == null) {
+            throw new IllegalArgumentException("Manufacturers cannot be null!");
+        }
+
+        List<BatchItemResult<Manufacturer>> results;
+
+        try {
+            results = manufacturerBatchCreation.createAll(manufacturers, manufacturerRepository::saveAllAndFlush);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.MANUFACTURER_NAME)) {
+                throw new ManufacturerNameException("One of the manufacturer names already exists!");
+            }
+            throw e;
         }
 
-        return manufacturerRepository.save(manufacturer);
+        manufacturerSnapshot.refreshAfterCommit();
 
+        return results;
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
     public void updateManufacturer(Manufacturer manufacturer) {
 
         if (manufacturer == null) {
@@ -42,7 +129,7 @@ public class ManufacturerService {
                 .orElseThrow(() -> new ManufacturerNotFoundException("Manufacturer with Id " + manufacturer.getManufacturerId() + " not found."));
 
         Optional.of(manufacturer.getManufacturerName())
-                .filter(manufacturerName -> !manufacturerRepository.existsByManufacturerName(manufacturerName))
+                .filter(manufacturerName -> !manufacturerSnapshot.get().existsByName(manufacturerName))
                 .ifPresentOrElse(
                         updatedManufacturerName -> updatedManufacturer.setManufacturerName(updatedManufacturerName),
                         () -> {
@@ -50,19 +137,49 @@ public class ManufacturerService {
                         }
                 );
 
+        // The snapshot may predate a name written concurrently, the unique constraint has the last word.
+        try {
+            manufacturerRepository.saveAndFlush(updatedManufacturer);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.isViolated(e, UniqueConstraints.MANUFACTURER_NAME)) {
+                throw new ManufacturerNameException("Manufacturer name " + manufacturer.getManufacturerName() + " already exists!");
+            }
+            throw e;
+        }
+
+        manufacturerSnapshot.refreshAfterCommit();
+
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.CARS, allEntries = true),
+            @CacheEvict(cacheNames = CacheNames.CAR_FACETS, allEntries = true)
+    })
+    @Transactional
     public void removeById(long manufacturerId) {
 
-        if(!manufacturerRepository.existsByManufacturerId(manufacturerId)) {
+        if (manufacturerRepository.deleteByManufacturerId(manufacturerId) == 0) {
             throw new ManufacturerNotFoundException("Manufacturer with Id " + manufacturerId + " not found.");
-        } else {
-            manufacturerRepository.deleteById(manufacturerId);
         }
 
+        manufacturerSnapshot.refreshAfterCommit();
+
+    }
+
+    public Page<ManufacturerView> getAll(Pageable pageable) {
+
+        if (pageable.getOffset() < 0) {
+            throw new IllegalArgumentException("Offset must be a non-negative integer.");
+        }
+
+        if (pageable.getPageSize() <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        return manufacturerSnapshot.get().findAll(pageable);
     }
 
-    public Page<Manufacturer> getAll(Pageable pageable) {
+    public Slice<ManufacturerView> getSlice(Pageable pageable) {
 
         if (pageable.getOffset() < 0) {
             throw new IllegalArgumentException("Offset must be a non-negative integer.");
@@ -72,12 +189,84 @@ public class ManufacturerService {
             throw new IllegalArgumentException("Page size must be a positive integer.");
         }
 
-        return manufacturerRepository.findAll(pageable);
+        return manufacturerSnapshot.get().findSlice(pageable);
     }
 
-    public Manufacturer getById(long manufacturerId) {
-        return manufacturerRepository.findById(manufacturerId)
+    public Page<Map<String, Object>> getAll(String fields, Pageable pageable) {
+
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return getAll(pageable).map(manufacturer -> fieldset.toRow(field -> fieldValue(manufacturer, field)));
+    }
+
+    public Slice<Map<String, Object>> getSlice(String fields, Pageable pageable) {
+
+        Fieldset fieldset = Fieldset.parse(fields, FIELDS);
+
+        return getSlice(pageable).map(manufacturer -> fieldset.toRow(field -> fieldValue(manufacturer, field)));
+    }
+
+    public long getApproximateCount() {
+        return manufacturerSnapshot.get().size();
+    }
+
+    public List<ManufacturerView> getAll() {
+        return manufacturerSnapshot.get().findAll();
+    }
+
+    public void exportAll(Consumer<ManufacturerView> consumer) {
+        manufacturerSnapshot.get().findAll().forEach(consumer);
+    }
+
+    public Window<Manufacturer> getAll(KeysetScrollPosition scrollPosition, Sort sort, int pageSize) {
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer.");
+        }
+
+        Sort keysetSort = KeysetSort.withTiebreaker(sort, KEYSET_SORT_FIELDS, "manufacturerId");
+
+        KeysetScrollPosition keysetPosition = KeysetSort.validatePosition(scrollPosition, keysetSort, KEYSET_SORT_FIELDS);
+
+        return manufacturerRepository.findAllBy(keysetPosition, keysetSort, Limit.of(pageSize));
+    }
+
+    public List<Manufacturer> search(String query, int limit) {
+
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty.");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT + ".");
+        }
+
+        return nameSearchRepository.searchManufacturers(query.strip(), limit);
+    }
+
+    public ManufacturerView getById(long manufacturerId) {
+        return manufacturerSnapshot.get().findById(manufacturerId)
                 .orElseThrow(() -> new ManufacturerNotFoundException("Manufacturer with Id " + manufacturerId + " not found."));
     }
 
+    public Revision getRevision(long manufacturerId) {
+
+        ManufacturerView manufacturer = getById(manufacturerId);
+
+        return new Revision(manufacturer.getVersion(), manufacturer.getLastModified());
+    }
+
+    public List<ManufacturerView> getByIds(List<Long> manufacturerIds) {
+
+        ReferenceDataSnapshot<ManufacturerView> snapshot = manufacturerSnapshot.get();
+
+        return BatchLookup.distinctIds(manufacturerIds).stream()
+                .map(snapshot::findById)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    private static Object fieldValue(ManufacturerView manufacturer, String field) {
+        return field.equals("manufacturerId") ? manufacturer.getManufacturerId() : manufacturer.getManufacturerName();
+    }
+
 }
@@ -0,0 +1,40 @@
+package com.example.carrestservice.service;
+
+import com.example.carrestservice.cache.CacheInvalidationBus;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+final class ReferenceDataHolder<T> {
+
+    private final String name;
+
+    private final Supplier<ReferenceDataSnapshot<T>> loader;
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final AtomicReference<ReferenceDataSnapshot<T>> snapshot = new AtomicReference<>(ReferenceDataSnapshot.empty());
+
+    ReferenceDataHolder(String name, Supplier<ReferenceDataSnapshot<T>> loader, CacheInvalidationBus cacheInvalidationBus) {
+        this.name = name;
+        this.loader = loader;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.subscribe(name, key -> refresh());
+    }
+
+    ReferenceDataSnapshot<T> get() {
+        return snapshot.get();
+    }
+
+    void refresh() {
+        snapshot.set(loader.get());
+    }
+
+    void refreshAfterCommit() {
+        TransactionCallbacks.afterCommit(() -> {
+            refresh();
+            cacheInvalidationBus.publish(name, null);
+        });
+    }
+
+}
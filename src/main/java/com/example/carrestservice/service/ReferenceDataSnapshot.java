@@ -0,0 +1,141 @@
+package com.example.carrestservice.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+final class ReferenceDataSnapshot<T> {
+
+    private final List<T> values;
+
+    private final Map<Long, T> valuesById;
+
+    private final Map<String, Long> idsByName;
+
+    private final Map<String, Comparator<T>> sortFields;
+
+    private ReferenceDataSnapshot(List<T> values, Map<Long, T> valuesById, Map<String, Long> idsByName, Map<String, Comparator<T>> sortFields) {
+        this.values = values;
+        this.valuesById = valuesById;
+        this.idsByName = idsByName;
+        this.sortFields = sortFields;
+    }
+
+    static <T> ReferenceDataSnapshot<T> empty() {
+        return new ReferenceDataSnapshot<>(List.of(), Map.of(), Map.of(), Map.of());
+    }
+
+    static <T> ReferenceDataSnapshot<T> of(List<T> values, ToLongFunction<T> idExtractor, Function<T, String> nameExtractor, Map<String, Comparator<T>> sortFields) {
+
+        Map<Long, T> valuesById = new HashMap<>();
+        Map<String, Long> idsByName = new HashMap<>();
+
+        for (T value : values) {
+            long id = idExtractor.applyAsLong(value);
+            valuesById.put(id, value);
+
+            String name = nameExtractor.apply(value);
+            if (name != null) {
+                idsByName.put(name, id);
+            }
+        }
+
+        List<T> sortedValues = new ArrayList<>(values);
+        sortedValues.sort(Comparator.comparingLong(idExtractor));
+
+        return new ReferenceDataSnapshot<>(
+                Collections.unmodifiableList(sortedValues),
+                Collections.unmodifiableMap(valuesById),
+                Collections.unmodifiableMap(idsByName),
+                sortFields
+        );
+    }
+
+    Optional<T> findById(long id) {
+        return Optional.ofNullable(valuesById.get(id));
+    }
+
+    boolean existsById(long id) {
+        return valuesById.containsKey(id);
+    }
+
+    boolean existsByName(String name) {
+        return name != null && idsByName.containsKey(name);
+    }
+
+    List<T> findAll() {
+        return values;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    Page<T> findAll(Pageable pageable) {
+
+        List<T> sortedValues = sort(pageable.getSort());
+
+        return new PageImpl<>(content(sortedValues, pageable), pageable, sortedValues.size());
+    }
+
+    Slice<T> findSlice(Pageable pageable) {
+
+        List<T> sortedValues = sort(pageable.getSort());
+        List<T> content = content(sortedValues, pageable);
+
+        return new SliceImpl<>(content, pageable, pageable.getOffset() + content.size() < sortedValues.size());
+    }
+
+    private List<T> sort(Sort sort) {
+
+        if (sort.isUnsorted()) {
+            return values;
+        }
+
+        Comparator<T> comparator = null;
+
+        for (Sort.Order order : sort) {
+            Comparator<T> fieldComparator = sortFields.get(order.getProperty());
+
+            if (fieldComparator == null) {
+                throw new IllegalArgumentException("Sort field " + order.getProperty() + " is not supported.");
+            }
+
+            if (order.isDescending()) {
+                fieldComparator = fieldComparator.reversed();
+            }
+
+            comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+        }
+
+        List<T> sortedValues = new ArrayList<>(values);
+        sortedValues.sort(comparator);
+        return sortedValues;
+    }
+
+    private List<T> content(List<T> sortedValues, Pageable pageable) {
+
+        if (pageable.getOffset() >= sortedValues.size()) {
+            return List.of();
+        }
+
+        int fromIndex = (int) pageable.getOffset();
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), sortedValues.size());
+
+        return sortedValues.subList(fromIndex, toIndex);
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.carrestservice.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+final class UniqueConstraints {
+
+    static final String CAR_MODEL_ID = "cars_car_model_id_key";
+
+    static final String CAR_MODEL_NAME = "car_models_car_model_name_key";
+
+    static final String CATEGORY_NAME = "categories_category_name_key";
+
+    static final String MANUFACTURER_NAME = "manufacturers_manufacturer_name_key";
+
+    private UniqueConstraints() {
+
+    }
+
+    static boolean isViolated(DataIntegrityViolationException exception, String constraintName) {
+
+        Throwable cause = exception.getCause();
+
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException constraintViolationException) {
+                return constraintName.equalsIgnoreCase(constraintViolationException.getConstraintName());
+            }
+            cause = cause.getCause();
+        }
+
+        return false;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.example.carrestservice.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class CarModelView implements Serializable {
+
+    private long carModelId;
+
+    private String carModelName;
+
+    private long version;
+
+    private Instant lastModified;
+
+}
@@ -0,0 +1,45 @@
+package com.example.carrestservice.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Read-only car with its manufacturer, car model and category, serialized in the same shape as the {@code Car} entity,
+ * including the version and last modification of each.
+ * Queries build it through the flat constructor, so no entity is loaded into the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class CarView implements Serializable {
+
+    private long carId;
+
+    private ManufacturerView manufacturer;
+
+    private int manufactureYear;
+
+    private CarModelView carModel;
+
+    private CategoryView category;
+
+    private long version;
+
+    private Instant lastModified;
+
+    public CarView(long carId, int manufactureYear, long version, Instant lastModified,
+                   Long manufacturerId, String manufacturerName, Long manufacturerVersion, Instant manufacturerLastModified,
+                   Long carModelId, String carModelName, Long carModelVersion, Instant carModelLastModified,
+                   Long categoryId, String categoryName, Long categoryVersion, Instant categoryLastModified) {
+        this.carId = carId;
+        this.manufactureYear = manufactureYear;
+        this.version = version;
+        this.lastModified = lastModified;
+        this.manufacturer = manufacturerId == null ? null : new ManufacturerView(manufacturerId, manufacturerName, manufacturerVersion, manufacturerLastModified);
+        this.carModel = carModelId == null ? null : new CarModelView(carModelId, carModelName, carModelVersion, carModelLastModified);
+        this.category = categoryId == null ? null : new CategoryView(categoryId, categoryName, categoryVersion, categoryLastModified);
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.example.carrestservice.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class CategoryView implements Serializable {
+
+    private long categoryId;
+
+    private String categoryName;
+
+    private long version;
+
+    private Instant lastModified;
+
+}
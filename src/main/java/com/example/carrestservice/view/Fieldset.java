@@ -0,0 +1,142 @@
+package com.example.carrestservice.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Fields requested through the {@code fields} query parameter, resolved to the supported leaf paths such as
+ * {@code carModel.carModelName}. Naming an association such as {@code carModel} selects all of its fields.
+ * The first supported path of an association is its id, which is always selected so that a missing association
+ * renders as {@code null} rather than as an object of nulls.
+ */
+public final class Fieldset {
+
+    private final List<String> paths;
+
+    private final List<String> selectedPaths;
+
+    private final Map<String, String> associationIdPaths;
+
+    private Fieldset(List<String> paths, List<String> selectedPaths, Map<String, String> associationIdPaths) {
+        this.paths = paths;
+        this.selectedPaths = selectedPaths;
+        this.associationIdPaths = associationIdPaths;
+    }
+
+    public static Fieldset parse(String fields, Collection<String> supportedPaths) {
+
+        if (fields == null || fields.isBlank()) {
+            throw new IllegalArgumentException("Fields cannot be empty.");
+        }
+
+        Set<String> requestedPaths = new LinkedHashSet<>();
+
+        for (String field : fields.split(",")) {
+
+            String trimmedField = field.strip();
+
+            if (trimmedField.isEmpty()) {
+                continue;
+            }
+
+            List<String> matchingPaths = supportedPaths.stream()
+                    .filter(path -> path.equals(trimmedField) || path.startsWith(trimmedField + "."))
+                    .toList();
+
+            if (matchingPaths.isEmpty()) {
+                throw new IllegalArgumentException("Field " + trimmedField + " is not supported.");
+            }
+
+            requestedPaths.addAll(matchingPaths);
+        }
+
+        if (requestedPaths.isEmpty()) {
+            throw new IllegalArgumentException("Fields cannot be empty.");
+        }
+
+        // Keep the order of the supported paths so rows serialize the same way whatever the order of the request.
+        List<String> paths = new ArrayList<>(supportedPaths);
+        paths.retainAll(requestedPaths);
+
+        Map<String, String> associationIdPaths = new LinkedHashMap<>();
+
+        for (String path : paths) {
+            int separator = path.lastIndexOf('.');
+            if (separator > 0) {
+                String association = path.substring(0, separator);
+                associationIdPaths.computeIfAbsent(association, key -> supportedPaths.stream()
+                        .filter(supportedPath -> supportedPath.startsWith(association + "."))
+                        .findFirst()
+                        .orElseThrow());
+            }
+        }
+
+        List<String> selectedPaths = new ArrayList<>(supportedPaths);
+        selectedPaths.removeIf(path -> !requestedPaths.contains(path) && !associationIdPaths.containsValue(path));
+
+        return new Fieldset(List.copyOf(paths), List.copyOf(selectedPaths), associationIdPaths);
+    }
+
+    /**
+     * Paths rendered in the rows.
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Paths to read, the rendered ones plus the ids of their associations.
+     */
+    public List<String> getSelectedPaths() {
+        return selectedPaths;
+    }
+
+    public Map<String, Object> toRow(Function<String, Object> valueByPath) {
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        Set<String> missingAssociations = new HashSet<>();
+
+        associationIdPaths.forEach((association, idPath) -> {
+            if (valueByPath.apply(idPath) == null) {
+                missingAssociations.add(association);
+            }
+        });
+
+        for (String path : paths) {
+
+            String[] names = path.split("\\.");
+            int depth = names.length - 1;
+
+            for (int i = 1; i < names.length; i++) {
+                if (missingAssociations.contains(String.join(".", Arrays.asList(names).subList(0, i)))) {
+                    depth = i - 1;
+                    break;
+                }
+            }
+
+            Map<String, Object> parent = row;
+
+            for (int i = 0; i < depth; i++) {
+                parent = nested(parent, names[i]);
+            }
+
+            parent.put(names[depth], depth == names.length - 1 ? valueByPath.apply(path) : null);
+        }
+
+        return row;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> nested(Map<String, Object> parent, String name) {
+        return (Map<String, Object>) parent.computeIfAbsent(name, key -> new LinkedHashMap<String, Object>());
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.example.carrestservice.view;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class ManufacturerView implements Serializable {
+
+    private long manufacturerId;
+
+    private String manufacturerName;
+
+    private long version;
+
+    private Instant lastModified;
+
+}
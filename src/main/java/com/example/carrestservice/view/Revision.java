@@ -0,0 +1,65 @@
+package com.example.carrestservice.view;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Version of a resource as served to HTTP clients. The entity tag is built from the version columns only, so cached
+ * views can be compared with {@code If-None-Match} without rendering them.
+ */
+@Getter
+public class Revision implements Serializable {
+
+    private String eTag;
+
+    private Instant lastModified;
+
+    public Revision(long version, Instant lastModified) {
+        this(String.valueOf(version), lastModified);
+    }
+
+    /**
+     * A car is rendered together with its manufacturer, car model and category. Changing one of them does not bump
+     * the car version, so their versions are part of the tag and it changes whenever any of them changes.
+     */
+    public Revision(long carVersion, Long manufacturerVersion, Long carModelVersion, Long categoryVersion, Instant lastModified) {
+        this(carVersion + "-" + manufacturerVersion + "-" + carModelVersion + "-" + categoryVersion, lastModified);
+    }
+
+    private Revision(String eTag, Instant lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public static Revision of(CarModelView carModel) {
+        return new Revision(carModel.getVersion(), carModel.getLastModified());
+    }
+
+    public static Revision of(CarView car) {
+
+        ManufacturerView manufacturer = car.getManufacturer();
+        CarModelView carModel = car.getCarModel();
+        CategoryView category = car.getCategory();
+
+        Instant lastModified = Stream.of(
+                        car.getLastModified(),
+                        manufacturer == null ? null : manufacturer.getLastModified(),
+                        carModel == null ? null : carModel.getLastModified(),
+                        category == null ? null : category.getLastModified())
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+
+        return new Revision(car.getVersion(),
+                manufacturer == null ? null : manufacturer.getVersion(),
+                carModel == null ? null : carModel.getVersion(),
+                category == null ? null : category.getVersion(),
+                lastModified);
+    }
+
+}
@@ -0,0 +1,10 @@
+create extension if not exists pg_trgm;
+
+create index car_models_car_model_name_trgm_idx
+    on public.car_models using gin (car_model_name gin_trgm_ops);
+
+create index manufacturers_manufacturer_name_trgm_idx
+    on public.manufacturers using gin (manufacturer_name gin_trgm_ops);
+
+create index categories_category_name_trgm_idx
+    on public.categories using gin (category_name gin_trgm_ops);
@@ -0,0 +1,105 @@
+-- Car counts per manufacturer, category, manufacture year and in total, kept in step with public.cars by the
+-- statement level triggers below so that unfiltered statistics read one row per group instead of every car.
+create table public.car_facet_counts (
+    facet     varchar(16) not null,
+    value     bigint,
+    car_count bigint      not null
+);
+
+-- Cars without a manufacturer or category are counted under a null value; ids and years are never negative.
+create unique index car_facet_counts_facet_value_idx
+    on public.car_facet_counts (facet, coalesce(value, -1));
+
+create type public.car_facet_change as (
+    manufacturer_id  bigint,
+    category_id      bigint,
+    manufacture_year integer,
+    delta            bigint
+);
+
+create function public.maintain_car_facet_counts() returns trigger
+    language plpgsql as
+$$
+declare
+    changes public.car_facet_change[] := '{}';
+begin
+    if tg_op in ('INSERT', 'UPDATE') then
+        changes := changes || array(
+            select row (manufacturer_id, category_id, manufacture_year, count(*))::public.car_facet_change
+            from new_cars
+            group by manufacturer_id, category_id, manufacture_year);
+    end if;
+
+    if tg_op in ('UPDATE', 'DELETE') then
+        changes := changes || array(
+            select row (manufacturer_id, category_id, manufacture_year, -count(*))::public.car_facet_change
+            from old_cars
+            group by manufacturer_id, category_id, manufacture_year);
+    end if;
+
+    -- Counters are upserted in a fixed order so that concurrent writers lock them in the same order.
+    insert into public.car_facet_counts as counts (facet, value, car_count)
+    select facets.facet, facets.value, sum(change.delta)
+    from unnest(changes) change
+    cross join lateral (values ('manufacturer', change.manufacturer_id),
+                               ('category', change.category_id),
+                               ('year', cast(change.manufacture_year as bigint)),
+                               ('total', cast(null as bigint))) facets (facet, value)
+    group by facets.facet, facets.value
+    having sum(change.delta) <> 0
+    order by facets.facet, facets.value
+    on conflict (facet, coalesce(value, -1)) do update
+        set car_count = counts.car_count + excluded.car_count;
+
+    delete from public.car_facet_counts
+    where car_count = 0 and facet <> 'total';
+
+    return null;
+end;
+$$;
+
+create function public.reset_car_facet_counts() returns trigger
+    language plpgsql as
+$$
+begin
+    delete from public.car_facet_counts where facet <> 'total';
+    update public.car_facet_counts set car_count = 0 where facet = 'total';
+    return null;
+end;
+$$;
+
+create trigger cars_facet_counts_insert
+    after insert on public.cars
+    referencing new table as new_cars
+    for each statement execute function public.maintain_car_facet_counts();
+
+create trigger cars_facet_counts_update
+    after update on public.cars
+    referencing old table as old_cars new table as new_cars
+    for each statement execute function public.maintain_car_facet_counts();
+
+create trigger cars_facet_counts_delete
+    after delete on public.cars
+    referencing old table as old_cars
+    for each statement execute function public.maintain_car_facet_counts();
+
+create trigger cars_facet_counts_truncate
+    after truncate on public.cars
+    for each statement execute function public.reset_car_facet_counts();
+
+insert into public.car_facet_counts (facet, value, car_count)
+values ('total', null, 0);
+
+insert into public.car_facet_counts as counts (facet, value, car_count)
+select case
+           when grouping(manufacturer_id) = 0 then 'manufacturer'
+           when grouping(category_id) = 0 then 'category'
+           when grouping(manufacture_year) = 0 then 'year'
+           else 'total'
+       end,
+       coalesce(manufacturer_id, category_id, manufacture_year),
+       count(*)
+from public.cars
+group by grouping sets ((manufacturer_id), (category_id), (manufacture_year), ())
+on conflict (facet, coalesce(value, -1)) do update
+    set car_count = excluded.car_count;
@@ -0,0 +1,15 @@
+alter table public.manufacturers
+    add column version bigint not null default 0,
+    add column last_modified timestamp with time zone not null default now();
+
+alter table public.car_models
+    add column version bigint not null default 0,
+    add column last_modified timestamp with time zone not null default now();
+
+alter table public.categories
+    add column version bigint not null default 0,
+    add column last_modified timestamp with time zone not null default now();
+
+alter table public.cars
+    add column version bigint not null default 0,
+    add column last_modified timestamp with time zone not null default now();
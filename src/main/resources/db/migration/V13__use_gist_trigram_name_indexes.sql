@@ -0,0 +1,12 @@
+drop index if exists public.car_models_car_model_name_trgm_idx;
+drop index if exists public.manufacturers_manufacturer_name_trgm_idx;
+drop index if exists public.categories_category_name_trgm_idx;
+
+create index car_models_car_model_name_trgm_idx
+    on public.car_models using gist (car_model_name gist_trgm_ops);
+
+create index manufacturers_manufacturer_name_trgm_idx
+    on public.manufacturers using gist (manufacturer_name gist_trgm_ops);
+
+create index categories_category_name_trgm_idx
+    on public.categories using gist (category_name gist_trgm_ops);
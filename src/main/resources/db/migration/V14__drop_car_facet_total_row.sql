@@ -0,0 +1,54 @@
+-- Every car write upserted the single 'total' row, so concurrent writers serialized on it. The total is now the sum
+-- of the manufacturer rows, under which every car is counted exactly once, and writers only contend on the rows of
+-- the groups they touch.
+create or replace function public.maintain_car_facet_counts() returns trigger
+    language plpgsql as
+$$
+declare
+    changes public.car_facet_change[] := '{}';
+begin
+    if tg_op in ('INSERT', 'UPDATE') then
+        changes := changes || array(
+            select row (manufacturer_id, category_id, manufacture_year, count(*))::public.car_facet_change
+            from new_cars
+            group by manufacturer_id, category_id, manufacture_year);
+    end if;
+
+    if tg_op in ('UPDATE', 'DELETE') then
+        changes := changes || array(
+            select row (manufacturer_id, category_id, manufacture_year, -count(*))::public.car_facet_change
+            from old_cars
+            group by manufacturer_id, category_id, manufacture_year);
+    end if;
+
+    -- Counters are upserted in a fixed order so that concurrent writers lock them in the same order.
+    insert into public.car_facet_counts as counts (facet, value, car_count)
+    select facets.facet, facets.value, sum(change.delta)
+    from unnest(changes) change
+    cross join lateral (values ('manufacturer', change.manufacturer_id),
+                               ('category', change.category_id),
+                               ('year', cast(change.manufacture_year as bigint))) facets (facet, value)
+    group by facets.facet, facets.value
+    having sum(change.delta) <> 0
+    order by facets.facet, facets.value
+    on conflict (facet, coalesce(value, -1)) do update
+        set car_count = counts.car_count + excluded.car_count;
+
+    delete from public.car_facet_counts
+    where car_count = 0;
+
+    return null;
+end;
+$$;
+
+create or replace function public.reset_car_facet_counts() returns trigger
+    language plpgsql as
+$$
+begin
+    delete from public.car_facet_counts;
+    return null;
+end;
+$$;
+
+delete from public.car_facet_counts
+where facet = 'total';
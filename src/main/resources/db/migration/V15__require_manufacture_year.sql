@@ -0,0 +1,22 @@
+-- Cars are paged by keyset on manufacture_year, which skips or repeats rows around nulls, and the entity maps the
+-- year as a primitive that cannot hold one. Every write path already supplies a year.
+-- No year can be made up for older rows without one, so the migration stops and counts them instead. Set their year
+-- or delete them, then rerun the migration.
+do
+$$
+declare
+    missing_years bigint;
+begin
+    select count(*) into missing_years
+    from public.cars
+    where manufacture_year is null;
+
+    if missing_years > 0 then
+        raise exception '% cars have no manufacture_year, set one or delete them before requiring it', missing_years
+            using hint = 'select car_id from public.cars where manufacture_year is null';
+    end if;
+end;
+$$;
+
+alter table public.cars
+    alter column manufacture_year set not null;
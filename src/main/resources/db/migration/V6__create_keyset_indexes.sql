@@ -0,0 +1,2 @@
+create index cars_manufacture_year_car_id_idx
+    on public.cars (manufacture_year, car_id);
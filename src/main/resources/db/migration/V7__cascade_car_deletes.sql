@@ -0,0 +1,18 @@
+alter table public.cars
+    drop constraint fk_cars_car_model_id,
+    drop constraint fk_cars_category_id,
+    drop constraint fk_cars_manufacturer_id;
+
+alter table public.cars
+    add constraint fk_cars_car_model_id foreign key (car_model_id)
+        references public.car_models on delete cascade,
+    add constraint fk_cars_category_id foreign key (category_id)
+        references public.categories on delete cascade,
+    add constraint fk_cars_manufacturer_id foreign key (manufacturer_id)
+        references public.manufacturers on delete cascade;
+
+create index cars_category_id_idx
+    on public.cars (category_id);
+
+create index cars_manufacturer_id_idx
+    on public.cars (manufacturer_id);
@@ -0,0 +1,11 @@
+alter sequence public.car_id_seq
+    increment by ${id_block_size};
+
+alter sequence public.car_model_id_seq
+    increment by ${id_block_size};
+
+alter sequence public.category_id_seq
+    increment by ${id_block_size};
+
+alter sequence public.manufacturer_id_seq
+    increment by ${id_block_size};
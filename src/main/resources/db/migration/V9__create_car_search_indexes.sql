@@ -0,0 +1,2 @@
+create index car_models_car_model_name_prefix_idx
+    on public.car_models (car_model_name text_pattern_ops);
@@ -0,0 +1,14 @@
+-- Runs after every migrate so that the sequences follow car-rest-service.id-block-size when it changes on an existing
+-- database, which V8 alone would not do since it has already been applied. Hibernate takes its allocation size
+-- from these increments.
+alter sequence public.car_id_seq
+    increment by ${id_block_size};
+
+alter sequence public.car_model_id_seq
+    increment by ${id_block_size};
+
+alter sequence public.category_id_seq
+    increment by ${id_block_size};
+
+alter sequence public.manufacturer_id_seq
+    increment by ${id_block_size};
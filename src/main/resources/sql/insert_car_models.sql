@@ -1,11 +1,13 @@
-INSERT INTO public.car_models (car_model_name) VALUES
-('Camry'),
-('Civic'),
-('Mustang'),
-('Accord'),
-('Model S'),
-('3 Series'),
-('A4'),
-('Corolla'),
-('F-150'),
-('Explorer');
+INSERT INTO public.car_models (car_model_id, car_model_name) VALUES
+(1, 'Camry'),
+(2, 'Civic'),
+(3, 'Mustang'),
+(4, 'Accord'),
+(5, 'Model S'),
+(6, '3 Series'),
+(7, 'A4'),
+(8, 'Corolla'),
+(9, 'F-150'),
+(10, 'Explorer');
+
+SELECT setval('public.car_model_id_seq', 11, false);
@@ -1,10 +1,12 @@
-INSERT INTO public.cars (manufacturer_id, manufacture_year, car_model_id, category_id) VALUES
-(1, 2020, 1, 1),
-(2, 2019, 2, 2),
-(2, 2018, 3, 5),
-(3, 2021, 4, 1),
-(4, 2022, 5, 4),
-(5, 2020, 6, 1),
-(6, 2021, 7, 1),
-(1, 2020, 8, 1),
-(2, 2022, 9, 4);
+INSERT INTO public.cars (car_id, manufacturer_id, manufacture_year, car_model_id, category_id) VALUES
+(1, 1, 2020, 1, 1),
+(2, 2, 2019, 2, 2),
+(3, 2, 2018, 3, 5),
+(4, 3, 2021, 4, 1),
+(5, 4, 2022, 5, 4),
+(6, 5, 2020, 6, 1),
+(7, 6, 2021, 7, 1),
+(8, 1, 2020, 8, 1),
+(9, 2, 2022, 9, 4);
+
+SELECT setval('public.car_id_seq', 10, false);
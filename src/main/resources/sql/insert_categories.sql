@@ -1,11 +1,13 @@
-INSERT INTO public.categories (category_name) VALUES
-('Sedan'),
-('Hatchback'),
-('Crossover'),
-('SUV'),
-('Coupe'),
-('Convertible'),
-('Minivan'),
-('Pickup Truck'),
-('Electric Car'),
-('Sports Car');
+INSERT INTO public.categories (category_id, category_name) VALUES
+(1, 'Sedan'),
+(2, 'Hatchback'),
+(3, 'Crossover'),
+(4, 'SUV'),
+(5, 'Coupe'),
+(6, 'Convertible'),
+(7, 'Minivan'),
+(8, 'Pickup Truck'),
+(9, 'Electric Car'),
+(10, 'Sports Car');
+
+SELECT setval('public.category_id_seq', 11, false);
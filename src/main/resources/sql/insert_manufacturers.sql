@@ -1,11 +1,13 @@
-INSERT INTO public.manufacturers (manufacturer_name) VALUES
-('Toyota'),
-('Ford'),
-('Honda'),
-('BMW'),
-('Mercedes-Benz'),
-('Volkswagen'),
-('Chevrolet'),
-('Nissan'),
-('Audi'),
-('Hyundai');
+INSERT INTO public.manufacturers (manufacturer_id, manufacturer_name) VALUES
+(1, 'Toyota'),
+(2, 'Ford'),
+(3, 'Honda'),
+(4, 'BMW'),
+(5, 'Mercedes-Benz'),
+(6, 'Volkswagen'),
+(7, 'Chevrolet'),
+(8, 'Nissan'),
+(9, 'Audi'),
+(10, 'Hyundai');
+
+SELECT setval('public.manufacturer_id_seq', 11, false);
@@ -0,0 +1,82 @@
+package com.example.carrestservice.benchmark;
+
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.batch.BatchItemStatus;
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.repository.CarModelRepository;
+import com.example.carrestservice.service.CarModelService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Sql(scripts = "/sql/drop_data.sql")
+public class BatchInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchInsertBenchmarkTest.class);
+
+    private static final int ITEMS = 5_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    CarModelService carModelService;
+
+    @Autowired
+    CarModelRepository carModelRepository;
+
+    @Test
+    void createCarModels_shouldOutperformOneRequestPerItem() {
+
+        long singleStart = System.nanoTime();
+        carModels("Single").forEach(carModelService::createCarModel);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        List<BatchItemResult<CarModel>> results = carModelService.createCarModels(carModels("Batch"));
+        long batchNanos = System.nanoTime() - batchStart;
+
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BatchItemStatus.CREATED));
+        assertEquals(2L * ITEMS, carModelRepository.count());
+
+        log.info("Inserted {} car models one by one: {} rows/s", ITEMS, throughput(singleNanos));
+        log.info("Inserted {} car models in a batch: {} rows/s", ITEMS, throughput(batchNanos));
+    }
+
+    private static List<CarModel> carModels(String prefix) {
+        return IntStream.range(0, ITEMS)
+                .mapToObj(index -> new CarModel(prefix + " model " + index))
+                .toList();
+    }
+
+    private static long throughput(long nanos) {
+        return ITEMS * 1_000_000_000L / nanos;
+    }
+
+}
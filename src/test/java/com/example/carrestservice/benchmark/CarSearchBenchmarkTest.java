@@ -0,0 +1,106 @@
+package com.example.carrestservice.benchmark;
+
+import com.example.carrestservice.search.CarFilter;
+import com.example.carrestservice.service.CarService;
+import com.example.carrestservice.view.CarView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_categories.sql", "/sql/insert_manufacturers.sql"})
+public class CarSearchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CarSearchBenchmarkTest.class);
+
+    private static final int CARS = 500_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CarService carService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into public.car_models (car_model_id, car_model_name) select id, 'Model ' || id from generate_series(1, ?) id", CARS);
+        jdbcTemplate.update("""
+                insert into public.cars (car_id, manufacturer_id, manufacture_year, car_model_id, category_id)
+                select id,
+                       case when id % 1000 = 0 then 10 else id % 9 + 1 end,
+                       1950 + id % 75,
+                       id,
+                       case when id % 1000 = 1 then 10 else id % 9 + 1 end
+                from generate_series(1, ?) id
+                """, CARS);
+        jdbcTemplate.execute("analyze public.car_models");
+        jdbcTemplate.execute("analyze public.cars");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "manufacturer id | select * from public.cars where manufacturer_id = 10 | cars_manufacturer_id_idx",
+            "category id | select * from public.cars where category_id = 10 | cars_category_id_idx",
+            "year range | select * from public.cars where manufacture_year between 2001 and 2001 | cars_manufacture_year_car_id_idx",
+            "model name prefix | select * from public.car_models where car_model_name like 'Model 4242%' | car_models_car_model_name_prefix_idx"
+    })
+    void searchPredicates_shouldBeServedByIndexes(String predicate, String sql, String expectedIndex) {
+
+        String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+
+        log.info("Plan for {}:\n{}", predicate, plan);
+
+        assertTrue(plan.contains(expectedIndex), "Expected " + expectedIndex + " in plan for " + predicate);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"10,,,", ",10,2001,", ",,,Model 4242"})
+    void getSlice_shouldReturnFilteredCarsQuickly(Long manufacturerId, Long categoryId, Integer yearFrom, String modelNamePrefix) {
+
+        CarFilter filter = new CarFilter(manufacturerId, null, categoryId, null, yearFrom, yearFrom, modelNamePrefix);
+
+        long start = System.nanoTime();
+        Slice<CarView> slice = carService.getSlice(filter, PageRequest.of(0, 20));
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        List<Long> carIds = slice.getContent().stream().map(CarView::getCarId).toList();
+
+        log.info("Filtered {} cars by manufacturerId={}, categoryId={}, years={}..{}, prefix={} in {} us: {}",
+                CARS, manufacturerId, categoryId, yearFrom, yearFrom, modelNamePrefix, elapsedMicros, carIds);
+
+        assertFalse(carIds.isEmpty());
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.carrestservice.benchmark;
+
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.repository.NameSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Sql(scripts = "/sql/drop_data.sql")
+public class NameSearchBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(NameSearchBenchmarkTest.class);
+
+    private static final int CAR_MODELS = 1_000_000;
+
+    private static final List<String> QUERIES = List.of("Camry 4242", "Civc 777", "Mustang 1234", "Accrd 99", "Model S 500000");
+
+    private static final int ROUNDS = 50;
+
+    private static final long TARGET_MEDIAN_MILLIS = 10;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    NameSearchRepository nameSearchRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("""
+                insert into public.car_models (car_model_id, car_model_name)
+                select id, (array['Camry', 'Civic', 'Mustang', 'Accord', 'Model S', 'Corolla', 'Explorer'])[id % 7 + 1] || ' ' || id
+                from generate_series(1, ?) id
+                """, CAR_MODELS);
+        jdbcTemplate.execute("analyze public.car_models");
+    }
+
+    @Test
+    void searchCarModels_shouldAnswerWithinTarget_whenTableContainsMillionNames() {
+
+        QUERIES.forEach(query -> nameSearchRepository.searchCarModels(query, 10));
+
+        long[] elapsedNanos = new long[ROUNDS * QUERIES.size()];
+        int index = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String query : QUERIES) {
+                long start = System.nanoTime();
+                List<CarModel> carModels = nameSearchRepository.searchCarModels(query, 10);
+                elapsedNanos[index++] = System.nanoTime() - start;
+                assertFalse(carModels.isEmpty(), "No match for " + query);
+            }
+        }
+
+        Arrays.sort(elapsedNanos);
+
+        long medianMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos[elapsedNanos.length / 2]);
+        long p95Millis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos[elapsedNanos.length * 95 / 100]);
+
+        log.info("Searched {} car model names: median {} ms, p95 {} ms", CAR_MODELS, medianMillis, p95Millis);
+
+        assertTrue(medianMillis < TARGET_MEDIAN_MILLIS, "Median latency " + medianMillis + " ms exceeds " + TARGET_MEDIAN_MILLIS + " ms");
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.example.carrestservice.benchmark;
+
+import com.example.carrestservice.entity.Car;
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.entity.Manufacturer;
+import com.example.carrestservice.repository.CarModelRepository;
+import com.example.carrestservice.repository.CarRepository;
+import com.example.carrestservice.repository.CategoryRepository;
+import com.example.carrestservice.repository.ManufacturerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_categories.sql", "/sql/insert_manufacturers.sql"})
+public class SecondLevelCacheBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheBenchmarkTest.class);
+
+    private static final int CARS = 10_000;
+
+    private static final int ROUNDS = 5;
+
+    private static final int REFERENCE_IDS = 9;
+
+    private static final List<String> CAR_MODEL_NAMES = List.of("Model 1", "Model 2", "Model 3", "Supra");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    CarModelRepository carModelRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    ManufacturerRepository manufacturerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into public.car_models (car_model_id, car_model_name) select id, 'Model ' || id from generate_series(1, ?) id", CARS);
+        jdbcTemplate.update("""
+                insert into public.cars (car_id, manufacturer_id, manufacture_year, car_model_id, category_id)
+                select id, id % 9 + 1, 1950 + id % 75, id, id % 9 + 1
+                from generate_series(1, ?) id
+                """, CARS);
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @Test
+    void findById_shouldNotQueryDatabase_whenReferenceDataIsInSecondLevelCache() {
+
+        Runnable lookups = () -> LongStream.rangeClosed(1, REFERENCE_IDS).forEach(id -> {
+            categoryRepository.findById(id);
+            manufacturerRepository.findById(id);
+        });
+
+        Run cold = run(lookups, true);
+        Run warm = run(lookups, false);
+
+        logRegions(Category.class, Manufacturer.class);
+        log.info("Looked up {} categories and manufacturers {} times: {} statements in {} ms without second-level cache, {} statements in {} ms with it",
+                REFERENCE_IDS, ROUNDS, cold.statements(), cold.millis(), warm.statements(), warm.millis());
+
+        assertEquals(2L * REFERENCE_IDS * ROUNDS, cold.statements());
+        assertTrue(warm.statements() <= 2L * REFERENCE_IDS, "Reference data was not served by the second-level cache");
+    }
+
+    @Test
+    void findById_shouldReadCarsFromSecondLevelCache_whenCarsWereLoadedBefore() {
+
+        Runnable lookups = () -> LongStream.rangeClosed(1, CARS).forEach(carRepository::findById);
+
+        Run cold = run(lookups, true);
+        Run warm = run(lookups, false);
+
+        logRegions(Car.class, CarModel.class, Category.class, Manufacturer.class);
+        log.info("Loaded {} cars {} times: {} statements in {} ms without second-level cache, {} statements in {} ms with it",
+                CARS, ROUNDS, cold.statements(), cold.millis(), warm.statements(), warm.millis());
+
+        assertTrue(sessionFactory.getStatistics().getDomainDataRegionStatistics(Car.class.getName()).getHitCount() > 0);
+    }
+
+    @Test
+    void existsByName_shouldSaveDatabaseRoundTrips_whenResultsAreInQueryCache() {
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        for (int round = 0; round < ROUNDS * 100; round++) {
+            CAR_MODEL_NAMES.forEach(carModelRepository::existsByCarModelName);
+        }
+
+        long lookups = ROUNDS * 100L * CAR_MODEL_NAMES.size();
+
+        log.info("{} name lookups: {} statements, query cache {} hits, {} misses",
+                lookups, statistics.getPrepareStatementCount(), statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+
+        assertTrue(statistics.getPrepareStatementCount() <= CAR_MODEL_NAMES.size(), "Name lookups were not served by the query cache");
+    }
+
+    private Run run(Runnable lookups, boolean evictBeforeEachRound) {
+
+        sessionFactory.getCache().evictAllRegions();
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        long start = System.nanoTime();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            if (evictBeforeEachRound) {
+                sessionFactory.getCache().evictAllRegions();
+            }
+            lookups.run();
+        }
+
+        return new Run(statistics.getPrepareStatementCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void logRegions(Class<?>... entityClasses) {
+        for (Class<?> entityClass : entityClasses) {
+            CacheRegionStatistics region = sessionFactory.getStatistics().getDomainDataRegionStatistics(entityClass.getName());
+            log.info("Region {}: {} hits, {} misses, {} puts", region.getRegionName(), region.getHitCount(), region.getMissCount(), region.getPutCount());
+        }
+    }
+
+    private record Run(long statements, long millis) {
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.example.carrestservice.benchmark;
+
+import com.example.carrestservice.CarRestServiceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@Tag("benchmark")
+@Testcontainers
+public class VirtualThreadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadBenchmarkTest.class);
+
+    private static final int CLIENTS = 400;
+
+    private static final int REQUESTS_PER_CLIENT = 50;
+
+    private static final int WARM_UP_REQUESTS = 1_000;
+
+    // Kept below the number of clients so that platform-thread mode queues requests the way a loaded replica does.
+    private static final int TOMCAT_THREADS = 50;
+
+    private static final int CONNECTION_POOL_SIZE = 20;
+
+    // Emitted by Java 21 whenever a virtual thread blocks while pinned to its carrier, e.g. inside synchronized.
+    private static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @ParameterizedTest(name = "virtual threads: {0}")
+    @ValueSource(booleans = {false, true})
+    void getCars_shouldServeConcurrentClients(boolean virtualThreads) throws Exception {
+
+        assumeTrue(!virtualThreads || Runtime.version().feature() >= 21, "Virtual threads require a Java 21 runtime");
+
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/cars?offset=0&pageSize=10&withTotal=false")).GET().build();
+
+            for (int i = 0; i < WARM_UP_REQUESTS; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            List<Future<Integer>> failures = new ArrayList<>();
+
+            Recording pinnedEvents = new Recording();
+            pinnedEvents.enable(VIRTUAL_THREAD_PINNED).withThreshold(Duration.ZERO);
+            pinnedEvents.start();
+
+            long start = System.nanoTime();
+
+            try {
+                for (int c = 0; c < CLIENTS; c++) {
+                    int offset = c * REQUESTS_PER_CLIENT;
+                    failures.add(clients.submit(() -> {
+                        int failed = 0;
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            long requestStart = System.nanoTime();
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            latencies[offset + i] = System.nanoTime() - requestStart;
+                            if (response.statusCode() != 200) {
+                                failed++;
+                            }
+                        }
+                        return failed;
+                    }));
+                }
+
+                int failed = 0;
+                for (Future<Integer> failure : failures) {
+                    failed += failure.get();
+                }
+                assertEquals(0, failed);
+            } finally {
+                clients.shutdownNow();
+            }
+
+            long elapsed = System.nanoTime() - start;
+            long pinned = countPinnedEvents(pinnedEvents);
+            Arrays.sort(latencies);
+
+            log.info("{}-thread mode served {} requests from {} clients at {} requests/s, p50 {} ms, p99 {} ms, max {} ms, {} pinned virtual threads",
+                    virtualThreads ? "Virtual" : "Platform", latencies.length, CLIENTS,
+                    Math.round(latencies.length / (elapsed / 1e9)),
+                    millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)), millis(latencies[latencies.length - 1]),
+                    pinned);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(CarRestServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                        "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                        "spring.datasource.hikari.maximum-pool-size=" + CONNECTION_POOL_SIZE,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.org.springframework.security=INFO",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads)
+                .run();
+    }
+
+    private static long countPinnedEvents(Recording recording) throws Exception {
+
+        Path file = Files.createTempFile("virtual-thread-pinning", ".jfr");
+
+        try (recording) {
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(VIRTUAL_THREAD_PINNED))
+                    .count();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long percentile(long[] sortedLatencies, double percentile) {
+        return sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1];
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+}
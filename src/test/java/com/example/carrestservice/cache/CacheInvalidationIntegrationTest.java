@@ -0,0 +1,110 @@
+package com.example.carrestservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = "car-rest-service.cache.invalidation.reconnect-delay=100ms")
+public class CacheInvalidationIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    CacheInvalidationListener cacheInvalidationListener;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        await(cacheInvalidationListener::isConnected);
+    }
+
+    @Test
+    void invalidationOfOtherReplica_shouldEvictOnlyThatEntry() throws Exception {
+
+        Cache cache = cacheManager.getCache(CacheNames.CARS);
+        cache.put(1L, "first car");
+        cache.put(2L, "second car");
+
+        String payload = objectMapper.writeValueAsString(new CacheInvalidation("other-node", CacheNames.CARS, 1L, System.currentTimeMillis()));
+        jdbcTemplate.queryForList("select pg_notify(?, ?)", CacheInvalidationBus.CHANNEL, payload);
+
+        await(() -> cache.get(1L) == null);
+
+        assertNotNull(cache.get(2L));
+        assertTrue(meterRegistry.get("cache.invalidation.lag").timer().count() > 0);
+    }
+
+    @Test
+    void localEviction_shouldBePublishedToOtherReplicas() throws Exception {
+
+        try (Connection connection = DriverManager.getConnection(postgreSQLContainer.getJdbcUrl(), postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword())) {
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("listen " + CacheInvalidationBus.CHANNEL);
+            }
+
+            cacheManager.getCache(CacheNames.CAR_MODELS).evict(7L);
+
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(5000);
+
+            assertNotNull(notifications);
+
+            CacheInvalidation invalidation = objectMapper.readValue(notifications[0].getParameter(), CacheInvalidation.class);
+
+            assertEquals(CacheNames.CAR_MODELS, invalidation.getCacheName());
+            assertEquals(7L, invalidation.getKey());
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition was not met within 5 seconds");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+}
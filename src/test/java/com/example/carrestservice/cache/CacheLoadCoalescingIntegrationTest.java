@@ -0,0 +1,105 @@
+package com.example.carrestservice.cache;
+
+import com.example.carrestservice.service.CarService;
+import com.example.carrestservice.view.CarView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest
+public class CacheLoadCoalescingIntegrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    private static final int CALLERS = 8;
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheNames.CARS).clear();
+    }
+
+    @Test
+    void getById_shouldQueryDatabaseOnce_whenConcurrentCallsMissTheSameCar() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        try (Connection lock = connect(); Connection monitor = connect()) {
+
+            // Holding the table lock keeps the first load in flight until every caller has missed the cache.
+            lock.setAutoCommit(false);
+            try (Statement statement = lock.createStatement()) {
+                statement.execute("lock table public.cars in access exclusive mode");
+            }
+
+            List<Future<CarView>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> carService.getById(1L)));
+            }
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (waitingQueries(monitor) == 0) {
+                assertTrue(System.currentTimeMillis() < deadline, "No load reached the database");
+                Thread.sleep(50);
+            }
+            Thread.sleep(500);
+
+            assertEquals(1, waitingQueries(monitor));
+
+            lock.commit();
+
+            for (Future<CarView> result : results) {
+                assertEquals(1L, result.get(5, TimeUnit.SECONDS).getCarId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Connection connect() throws Exception {
+        return DriverManager.getConnection(postgreSQLContainer.getJdbcUrl(), postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword());
+    }
+
+    // Queried outside the locking transaction, which would keep seeing the same activity snapshot.
+    private static int waitingQueries(Connection connection) throws Exception {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from pg_stat_activity where wait_event_type = 'Lock'")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+}
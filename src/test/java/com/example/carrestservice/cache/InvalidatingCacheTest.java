@@ -0,0 +1,79 @@
+package com.example.carrestservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class InvalidatingCacheTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    InvalidatingCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new InvalidatingCache(CacheNames.CARS, Caffeine.newBuilder().build(), true, mock(CacheInvalidationBus.class), meterRegistry);
+    }
+
+    @Test
+    void get_shouldRecordWait_whenCallerJoinsLoadOfSameKey() throws Exception {
+
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> loading = executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                releaseLoad.await();
+                return "car";
+            }));
+
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+            Future<String> waiting = executor.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+
+            Thread.sleep(200);
+            releaseLoad.countDown();
+
+            assertEquals("car", loading.get(5, TimeUnit.SECONDS));
+            assertEquals("car", waiting.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Timer wait = meterRegistry.get("cache.load.coalesced.wait").tag("cache", CacheNames.CARS).timer();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, wait.count());
+        assertTrue(wait.totalTime(TimeUnit.MILLISECONDS) >= 100);
+    }
+
+    @Test
+    void get_shouldNotRecordWait_whenCallerLoadsOrHits() {
+
+        assertEquals("car", cache.get(1L, () -> "car"));
+        assertEquals("car", cache.get(1L, () -> "other"));
+
+        assertEquals(0, meterRegistry.get("cache.load.coalesced.wait").timer().count());
+    }
+
+}
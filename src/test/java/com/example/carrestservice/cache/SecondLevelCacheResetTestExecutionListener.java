@@ -0,0 +1,25 @@
+package com.example.carrestservice.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Tests reset their data with SQL scripts that Hibernate does not see, so the second-level cache is emptied before
+ * every test method to keep entities of a previous test from being served.
+ */
+public class SecondLevelCacheResetTestExecutionListener extends AbstractTestExecutionListener {
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+
+        if (!testContext.hasApplicationContext()) {
+            return;
+        }
+
+        testContext.getApplicationContext().getBeanProvider(EntityManagerFactory.class)
+                .ifAvailable(entityManagerFactory -> entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions());
+    }
+
+}
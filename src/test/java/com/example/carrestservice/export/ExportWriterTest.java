@@ -0,0 +1,83 @@
+package com.example.carrestservice.export;
+
+import com.example.carrestservice.entity.Category;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportWriterTest {
+
+    static final List<ExportColumn<Category>> COLUMNS = List.of(
+            ExportColumn.of("categoryId", Category::getCategoryId),
+            ExportColumn.of("categoryName", Category::getCategoryName)
+    );
+
+    ExportWriter exportWriter;
+
+    List<Category> categories;
+
+    @BeforeEach
+    void setUp() {
+        exportWriter = new ExportWriter(new ObjectMapper());
+
+        Category sedan = new Category("Sedan");
+        sedan.setCategoryId(1L);
+
+        Category pickup = new Category("Pickup, \"Truck\"");
+        pickup.setCategoryId(2L);
+
+        categories = List.of(sedan, pickup);
+    }
+
+    @Test
+    void write_shouldWriteOneJsonObjectPerLine_whenFormatIsNdjson() throws Exception {
+
+        String actual = write(ExportFormat.NDJSON, categories::forEach);
+
+        assertEquals("{\"categoryId\":1,\"categoryName\":\"Sedan\"}\n"
+                + "{\"categoryId\":2,\"categoryName\":\"Pickup, \\\"Truck\\\"\"}\n", actual);
+    }
+
+    @Test
+    void write_shouldWriteHeaderAndEscapedRows_whenFormatIsCsv() throws Exception {
+
+        String actual = write(ExportFormat.CSV, categories::forEach);
+
+        assertEquals("categoryId,categoryName\n"
+                + "1,Sedan\n"
+                + "2,\"Pickup, \"\"Truck\"\"\"\n", actual);
+    }
+
+    @Test
+    void write_shouldWriteOnlyHeader_whenSourceIsEmptyAndFormatIsCsv() throws Exception {
+
+        String actual = write(ExportFormat.CSV, consumer -> {});
+
+        assertEquals("categoryId,categoryName\n", actual);
+    }
+
+    @Test
+    void of_shouldThrowException_whenFormatIsNotSupported() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> ExportFormat.of("xml"));
+
+        assertEquals("Export format xml is not supported.", exception.getMessage());
+    }
+
+    private String write(ExportFormat format, Consumer<Consumer<Category>> source) throws Exception {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exportWriter.write(format, COLUMNS, source).writeTo(outputStream);
+
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.example.carrestservice.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CursorCodecTest {
+
+    CursorCodec cursorCodec;
+
+    @BeforeEach
+    void setUp() {
+        cursorCodec = new CursorCodec(new ObjectMapper());
+    }
+
+    @Test
+    void decode_shouldReturnInitialPosition_whenInputContainsNoCursors() {
+        KeysetScrollPosition scrollPosition = cursorCodec.decode(null, null);
+        assertTrue(scrollPosition.isInitial());
+    }
+
+    @Test
+    void decode_shouldReturnForwardPosition_whenInputContainsAfterCursor() {
+
+        String cursor = cursorCodec.encode(ScrollPosition.forward(Map.of("carId", 5)));
+
+        KeysetScrollPosition scrollPosition = cursorCodec.decode(cursor, null);
+
+        assertTrue(scrollPosition.scrollsForward());
+        assertEquals(Map.of("carId", 5), scrollPosition.getKeys());
+    }
+
+    @Test
+    void decode_shouldReturnBackwardPosition_whenInputContainsBeforeCursor() {
+
+        String cursor = cursorCodec.encode(ScrollPosition.forward(Map.of("carId", 5)));
+
+        KeysetScrollPosition scrollPosition = cursorCodec.decode(null, cursor);
+
+        assertTrue(scrollPosition.scrollsBackward());
+        assertEquals(Map.of("carId", 5), scrollPosition.getKeys());
+    }
+
+    @Test
+    void decode_shouldThrowException_whenInputContainsBothCursors() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode("a", "b"));
+
+        assertEquals("Only one of after and before cursors can be specified.", exception.getMessage());
+    }
+
+    @Test
+    void decode_shouldThrowException_whenInputContainsMalformedCursor() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> cursorCodec.decode("%%%", null));
+
+        assertEquals("Invalid cursor.", exception.getMessage());
+    }
+
+    @Test
+    void toCursorPage_shouldReturnNextCursorOnly_whenWindowIsFirstPage() {
+
+        Window<String> window = Window.from(List.of("a", "b"), index -> ScrollPosition.forward(Map.of("carId", index + 1)), true);
+
+        CursorPage<String> cursorPage = cursorCodec.toCursorPage(window, ScrollPosition.keyset());
+
+        assertEquals(List.of("a", "b"), cursorPage.getContent());
+        assertTrue(cursorPage.isHasNext());
+        assertFalse(cursorPage.isHasPrevious());
+        assertNull(cursorPage.getPreviousCursor());
+        assertEquals(Map.of("carId", 2), cursorCodec.decode(cursorPage.getNextCursor(), null).getKeys());
+    }
+
+    @Test
+    void toCursorPage_shouldReturnEmptyPage_whenWindowIsEmpty() {
+
+        CursorPage<String> cursorPage = cursorCodec.toCursorPage(Window.from(List.of(), ScrollPosition::offset), ScrollPosition.keyset());
+
+        assertTrue(cursorPage.getContent().isEmpty());
+        assertNull(cursorPage.getNextCursor());
+        assertNull(cursorPage.getPreviousCursor());
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.search.CarFacets;
+import com.example.carrestservice.search.CarFilter;
+import com.example.carrestservice.search.FacetCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_car_models.sql", "/sql/insert_categories.sql", "/sql/insert_manufacturers.sql", "/sql/insert_cars.sql"})
+public class CarFacetRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    CarFacetRepository carFacetRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void countFacets_shouldCountAllCars_whenFilterIsEmpty() {
+
+        CarFacets facets = carFacetRepository.countFacets(new CarFilter());
+
+        assertEquals(9, facets.getTotalCount());
+        assertEquals(List.of("Ford=3", "Toyota=2", "Honda=1", "BMW=1", "Mercedes-Benz=1", "Volkswagen=1"), describe(facets.getManufacturers()));
+        assertEquals(List.of("Sedan=5", "SUV=2", "Hatchback=1", "Coupe=1"), describe(facets.getCategories()));
+        assertEquals(List.of("2020=3", "2021=2", "2022=2", "2018=1", "2019=1"), describe(facets.getManufactureYears()));
+        assertEquals(2L, facets.getManufacturers().get(0).getValue());
+        assertEquals(2020L, facets.getManufactureYears().get(0).getValue());
+    }
+
+    @Test
+    void countFacets_shouldCountMatchingCars_whenFilterContainsManufacturerId() {
+
+        CarFilter filter = new CarFilter();
+        filter.setManufacturerId(2L);
+
+        CarFacets facets = carFacetRepository.countFacets(filter);
+
+        assertEquals(3, facets.getTotalCount());
+        assertEquals(List.of("Ford=3"), describe(facets.getManufacturers()));
+        assertEquals(List.of("Hatchback=1", "SUV=1", "Coupe=1"), describe(facets.getCategories()));
+        assertEquals(List.of("2018=1", "2019=1", "2022=1"), describe(facets.getManufactureYears()));
+    }
+
+    @Test
+    void countFacets_shouldCountMatchingCars_whenFilterContainsModelNamePrefixAndCategoryName() {
+
+        CarFilter filter = new CarFilter();
+        filter.setModelNamePrefix("C");
+        filter.setCategoryName("Sedan");
+
+        CarFacets facets = carFacetRepository.countFacets(filter);
+
+        assertEquals(2, facets.getTotalCount());
+        assertEquals(List.of("Toyota=2"), describe(facets.getManufacturers()));
+        assertEquals(List.of("2020=2"), describe(facets.getManufactureYears()));
+    }
+
+    @Test
+    void countFacets_shouldReturnEmptyFacets_whenNoCarMatches() {
+
+        CarFilter filter = new CarFilter();
+        filter.setModelNamePrefix("%");
+
+        CarFacets facets = carFacetRepository.countFacets(filter);
+
+        assertEquals(0, facets.getTotalCount());
+        assertTrue(facets.getManufacturers().isEmpty());
+        assertTrue(facets.getCategories().isEmpty());
+        assertTrue(facets.getManufactureYears().isEmpty());
+    }
+
+    @Test
+    void countFacetsFromSummary_shouldMatchLiveCounts_whenCarsWereInserted() {
+
+        CarFacets live = carFacetRepository.countFacets(new CarFilter());
+        CarFacets summary = carFacetRepository.countFacetsFromSummary();
+
+        assertEquals(live.getTotalCount(), summary.getTotalCount());
+        assertEquals(describe(live.getManufacturers()), describe(summary.getManufacturers()));
+        assertEquals(describe(live.getCategories()), describe(summary.getCategories()));
+        assertEquals(describe(live.getManufactureYears()), describe(summary.getManufactureYears()));
+    }
+
+    @Test
+    @Transactional
+    void countFacetsFromSummary_shouldFollowUpdatesAndCascadedDeletes() {
+
+        jdbcTemplate.update("update public.cars set manufacture_year = 2024 where manufacture_year = 2020");
+        jdbcTemplate.update("delete from public.manufacturers where manufacturer_id = 2");
+
+        CarFacets summary = carFacetRepository.countFacetsFromSummary();
+
+        assertEquals(6, summary.getTotalCount());
+        assertEquals(List.of("Toyota=2", "Honda=1", "BMW=1", "Mercedes-Benz=1", "Volkswagen=1"), describe(summary.getManufacturers()));
+        assertEquals(List.of("Sedan=5", "SUV=1"), describe(summary.getCategories()));
+        assertEquals(List.of("2024=3", "2021=2", "2022=1"), describe(summary.getManufactureYears()));
+        assertEquals(0, carFacetRepository.countSummaryDrift());
+    }
+
+    @Test
+    @Transactional
+    void countFacetsFromSummary_shouldBeEmpty_whenCarsWereTruncated() {
+
+        jdbcTemplate.execute("truncate table public.cars");
+
+        CarFacets summary = carFacetRepository.countFacetsFromSummary();
+
+        assertEquals(0, summary.getTotalCount());
+        assertTrue(summary.getManufacturers().isEmpty());
+        assertEquals(0, carFacetRepository.countSummaryDrift());
+    }
+
+    @Test
+    @Transactional
+    void rebuildSummary_shouldRepairDriftedCounts() {
+
+        jdbcTemplate.update("update public.car_facet_counts set car_count = car_count + 5 where facet = 'manufacturer' and value = 1");
+        jdbcTemplate.update("delete from public.car_facet_counts where facet = 'year' and value = 2018");
+
+        assertEquals(2, carFacetRepository.countSummaryDrift());
+
+        carFacetRepository.rebuildSummary();
+
+        assertEquals(0, carFacetRepository.countSummaryDrift());
+        assertEquals(List.of("Ford=3", "Toyota=2", "Honda=1", "BMW=1", "Mercedes-Benz=1", "Volkswagen=1"),
+                describe(carFacetRepository.countFacetsFromSummary().getManufacturers()));
+    }
+
+    @Test
+    @Transactional
+    void tryLockSummaryCheck_shouldFail_whileAnotherTransactionHoldsTheLock() {
+
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertTrue(carFacetRepository.tryLockSummaryCheck());
+        assertEquals(Boolean.FALSE, otherTransaction.execute(status -> carFacetRepository.tryLockSummaryCheck()));
+    }
+
+    private static List<String> describe(List<FacetCount> facetCounts) {
+        return facetCounts.stream()
+                .map(facetCount -> facetCount.getName() + "=" + facetCount.getCount())
+                .toList();
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.batch.CarImportRejection;
+import com.example.carrestservice.entity.Car;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest
+@Transactional
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_car_models.sql", "/sql/insert_categories.sql", "/sql/insert_manufacturers.sql", "/sql/insert_cars.sql"})
+public class CarImportRepositoryTest {
+
+    static final String CSV = """
+            manufacturerName,manufactureYear,carModelName,categoryName
+            Toyota,2020,Camry,Sedan
+            Ford,2021,Explorer,SUV
+            Unknown,2020,Civic,Sedan
+            Honda,20x1,Civic,Sedan
+            Honda,2019,Accord,Coupe
+            Honda,2020,Accord,Coupe
+            """;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    CarImportRepository carImportRepository;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void copyToStaging_shouldReturnNumberOfDataRows() {
+        assertEquals(6, carImportRepository.copyToStaging(new StringReader(CSV)));
+    }
+
+    @Test
+    void findRejections_shouldReportRowsThatCannotBeResolved() {
+
+        carImportRepository.copyToStaging(new StringReader(CSV));
+        carImportRepository.resolveStaging();
+
+        List<CarImportRejection> rejections = carImportRepository.findRejections(10);
+
+        assertEquals(3, carImportRepository.countRejected());
+        assertEquals(List.of(3L, 4L, 5L), rejections.stream().map(CarImportRejection::getRowNumber).toList());
+        assertEquals(List.of("Unknown manufacturer.", "Invalid manufacture year.", "Car model is imported again in a later row."),
+                rejections.stream().map(CarImportRejection::getReason).toList());
+    }
+
+    @Test
+    void mergeIntoCars_shouldInsertNewCarsAndUpdateCarsWithSameCarModel() {
+
+        carImportRepository.copyToStaging(new StringReader(CSV));
+        carImportRepository.resolveStaging();
+
+        CarImportRepository.MergedRows mergedRows = carImportRepository.mergeIntoCars();
+
+        assertEquals(1, mergedRows.getInsertedRows());
+        assertEquals(2, mergedRows.getUpdatedRows());
+        assertEquals(10, carRepository.count());
+
+        Car accord = carRepository.findById(4L).orElseThrow();
+        assertEquals(2020, accord.getManufactureYear());
+        assertEquals("Coupe", accord.getCategory().getCategoryName());
+    }
+
+    @Test
+    void mergeIntoCars_shouldTakeOneIdBlock_forAllInsertedCars() {
+
+        long blockSize = jdbcTemplate.queryForObject("select increment_by from pg_sequences where sequencename = 'car_id_seq'", Long.class);
+        long before = jdbcTemplate.queryForObject("select nextval('public.car_id_seq')", Long.class);
+
+        carImportRepository.copyToStaging(new StringReader(CSV));
+        carImportRepository.resolveStaging();
+        carImportRepository.mergeIntoCars();
+
+        long after = jdbcTemplate.queryForObject("select nextval('public.car_id_seq')", Long.class);
+        long explorerId = jdbcTemplate.queryForObject("select car_id from public.cars join public.car_models using (car_model_id) where car_model_name = 'Explorer'", Long.class);
+
+        assertEquals(before + 2 * blockSize, after);
+        assertEquals(before + blockSize, explorerId);
+    }
+
+    @Test
+    void copyToStaging_shouldThrowException_whenFileIsNotValidCsv() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carImportRepository.copyToStaging(new StringReader("header\n\"unterminated\n")));
+
+        assertTrue(exception.getMessage().startsWith("Car import file is not valid"));
+    }
+
+}
@@ -1,12 +1,19 @@
 package com.example.carrestservice.repository;
 
 import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.view.CarModelView;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -40,6 +47,9 @@ public class CarModelRepositoryTest {
     @Autowired
     CarModelRepository carModelRepository;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Test
     void save_shouldSaveChanges_whenInputContainsCarModelWithNotExistingCarModelName() {
         CarModel carModel = new CarModel();
@@ -132,6 +142,53 @@ public class CarModelRepositoryTest {
         assertFalse(carModelRepository.existsByCarModelId(carModelId));
     }
 
+    @Test
+    void existsByCarModelName_shouldBeServedFromQueryCache_whenCarModelNameWasLookedUpBefore() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        carModelRepository.existsByCarModelName("Camry");
+        statistics.clear();
+
+        assertTrue(carModelRepository.existsByCarModelName("Camry"));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void existsByCarModelName_shouldReturnTrue_whenCarModelIsRenamedAfterCachedLookup() {
+        assertFalse(carModelRepository.existsByCarModelName("Supra"));
+
+        CarModel carModel = carModelRepository.findById(1L).orElseThrow();
+        carModel.setCarModelName("Supra");
+        carModelRepository.save(carModel);
+
+        assertTrue(carModelRepository.existsByCarModelName("Supra"));
+    }
+
+    @Test
+    void findViewPage_shouldReturnCarModelViewsInRequestedOrder() {
+
+        Page<CarModelView> page = carModelRepository.findViewPage(PageRequest.of(0, 3, Sort.by("carModelName")));
+
+        assertEquals(List.of("3 Series", "A4", "Accord"), page.getContent().stream().map(CarModelView::getCarModelName).toList());
+        assertEquals(10, page.getTotalElements());
+    }
+
+    @Test
+    void findViewById_shouldReturnCarModelView_whenInputContainsExistingCarModelId() {
+
+        Optional<CarModelView> carModelView = carModelRepository.findViewById(1L);
+
+        assertTrue(carModelView.isPresent());
+        assertEquals("Camry", carModelView.get().getCarModelName());
+        assertTrue(carModelRepository.findViewById(42L).isEmpty());
+    }
+
+    @Test
+    void findViewsByIds_shouldReturnOnlyExistingCarModelViews() {
+
+        List<CarModelView> carModelViews = carModelRepository.findViewsByIds(List.of(2L, 1L, 42L));
 
+        assertEquals(List.of(1L, 2L), carModelViews.stream().map(CarModelView::getCarModelId).sorted().toList());
+    }
 
 }
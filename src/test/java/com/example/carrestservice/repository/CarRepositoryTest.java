@@ -1,11 +1,30 @@
 package com.example.carrestservice.repository;
 
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Car;
+import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.search.CarFilter;
+import com.example.carrestservice.search.CarSpecifications;
+import com.example.carrestservice.view.CarView;
+import com.example.carrestservice.view.Revision;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
@@ -20,7 +39,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 
 @Testcontainers
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_car_models.sql", "/sql/insert_categories.sql", "/sql/insert_manufacturers.sql", "/sql/insert_cars.sql"})
 public class CarRepositoryTest {
     @Container
@@ -34,6 +53,23 @@ public class CarRepositoryTest {
 
     @Autowired
     CarRepository carRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
     @Test
     void save_shouldSaveChanges_whenInputContainsCorrectCar() {
         Car car = new Car();
@@ -60,6 +96,27 @@ public class CarRepositoryTest {
         assertEquals(9, carRepository.count());
     }
 
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L})
+    void deleteByCarId_shouldDeleteCarInSingleStatement_whenInputContainsExistingCarId(long carId) {
+        assertEquals(1, carRepository.deleteByCarId(carId));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(8, carRepository.count());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
+    void deleteByCarId_shouldReturnZero_whenInputContainsNotExistingCarId(long carId) {
+        assertEquals(0, carRepository.deleteByCarId(carId));
+        assertEquals(9, carRepository.count());
+    }
+
+    @Test
+    void deleteByCategoryId_shouldCascadeToCars_whenCategoryIsReferencedByCars() {
+        assertEquals(1, categoryRepository.deleteByCategoryId(1L));
+        assertEquals(4, carRepository.count());
+    }
+
     @ParameterizedTest
     @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L})
     void findById_shouldReturnCar_whenInputContainsExistingCarId(long carId) {
@@ -73,6 +130,27 @@ public class CarRepositoryTest {
         Optional<Car> optionalCar = carRepository.findById(carId);
         assertTrue(optionalCar.isEmpty());
     }
+
+    @Test
+    void findById_shouldReadCarFromSecondLevelCache_whenCarWasLoadedBefore() {
+        carRepository.findById(1L);
+        statistics.clear();
+
+        Optional<Car> optionalCar = carRepository.findById(1L);
+
+        assertTrue(optionalCar.isPresent());
+        assertTrue(statistics.getDomainDataRegionStatistics(Car.class.getName()).getHitCount() > 0);
+        assertEquals(0, statistics.getDomainDataRegionStatistics(Car.class.getName()).getMissCount());
+    }
+
+    @Test
+    void findById_shouldReadCarFromDatabase_whenCategoryDeleteCascadedToIt() {
+        Category category = carRepository.findById(1L).orElseThrow().getCategory();
+        categoryRepository.deleteByCategoryId(category.getCategoryId());
+        cacheManager.getCache(CacheNames.CARS).clear();
+
+        assertTrue(carRepository.findById(1L).isEmpty());
+    }
     @ParameterizedTest
     @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L})
     void existsByCarModel_CarModelId_shouldReturnTrue_whenInputContainsExistingCarModelId(long carModelId) {
@@ -97,4 +175,154 @@ public class CarRepositoryTest {
         assertFalse(carRepository.existsByCarId(carId));
     }
 
+    @Test
+    void findMatchingViewPage_shouldReturnMatchingCarViews_whenSpecificationContainsManufacturerId() {
+        CarFilter filter = new CarFilter();
+        filter.setManufacturerId(2L);
+
+        Page<CarView> page = carRepository.findMatchingViewPage(CarSpecifications.matching(filter), PageRequest.of(0, 10, Sort.by("carId")));
+
+        assertEquals(List.of(2L, 3L, 9L), page.getContent().stream().map(CarView::getCarId).toList());
+    }
+
+    @Test
+    void findMatchingViewPage_shouldReturnMatchingCarViews_whenSpecificationContainsModelNamePrefix() {
+        CarFilter filter = new CarFilter();
+        filter.setModelNamePrefix("C");
+
+        Page<CarView> page = carRepository.findMatchingViewPage(CarSpecifications.matching(filter), PageRequest.of(0, 10, Sort.by("carId")));
+
+        assertEquals(List.of(1L, 2L, 8L), page.getContent().stream().map(CarView::getCarId).toList());
+    }
+
+    @Test
+    void findMatchingViewPage_shouldTreatLikeWildcardsLiterally_whenModelNamePrefixContainsThem() {
+        CarFilter filter = new CarFilter();
+        filter.setModelNamePrefix("%");
+
+        Page<CarView> page = carRepository.findMatchingViewPage(CarSpecifications.matching(filter), PageRequest.of(0, 10));
+
+        assertTrue(page.isEmpty());
+    }
+
+    @Test
+    void findAllBy_shouldReturnConsecutiveWindows_whenScrollingForward() {
+
+        Sort sort = Sort.by(Sort.Direction.ASC, "manufactureYear", "carId");
+
+        Window<Car> firstWindow = carRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(5));
+
+        assertEquals(5, firstWindow.size());
+        assertTrue(firstWindow.hasNext());
+
+        KeysetScrollPosition nextPosition = (KeysetScrollPosition) firstWindow.positionAt(firstWindow.size() - 1);
+
+        Window<Car> secondWindow = carRepository.findAllBy(nextPosition, sort, Limit.of(5));
+
+        assertEquals(4, secondWindow.size());
+        assertFalse(secondWindow.hasNext());
+        assertTrue(secondWindow.getContent().stream().noneMatch(firstWindow.getContent()::contains));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 5L, 9L})
+    void findById_shouldLoadCarWithAssociationsInSingleStatement(long carId) {
+
+        Optional<Car> optionalCar = carRepository.findById(carId);
+
+        assertTrue(optionalCar.isPresent());
+        assertNotNull(optionalCar.get().getCarModel().getCarModelName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findViewSlice_shouldReadCarViewsWithoutLoadingEntities() {
+
+        Slice<CarView> slice = carRepository.findViewSlice(PageRequest.of(0, 5, Sort.by("carId")));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), slice.getContent().stream().map(CarView::getCarId).toList());
+        assertEquals("Toyota", slice.getContent().get(0).getManufacturer().getManufacturerName());
+        assertEquals("Camry", slice.getContent().get(0).getCarModel().getCarModelName());
+        assertEquals("Sedan", slice.getContent().get(0).getCategory().getCategoryName());
+        assertTrue(slice.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findViewPage_shouldCountAllCars() {
+
+        Page<CarView> page = carRepository.findViewPage(PageRequest.of(1, 4, Sort.by(Sort.Direction.DESC, "carId")));
+
+        assertEquals(List.of(5L, 4L, 3L, 2L), page.getContent().stream().map(CarView::getCarId).toList());
+        assertEquals(9, page.getTotalElements());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findMatchingViewPage_shouldReturnMatchingCarViews_whenSpecificationContainsCategoryNameAndYearRange() {
+        CarFilter filter = new CarFilter();
+        filter.setCategoryName("Sedan");
+        filter.setYearFrom(2021);
+        filter.setYearTo(2022);
+
+        Page<CarView> page = carRepository.findMatchingViewPage(CarSpecifications.matching(filter), PageRequest.of(0, 10, Sort.by("carId")));
+
+        assertEquals(List.of(4L, 7L), page.getContent().stream().map(CarView::getCarId).toList());
+        assertEquals(2, page.getTotalElements());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findMatchingViewSlice_shouldReturnSliceWithoutCounting_whenSpecificationMatchesMoreThanPageSize() {
+        CarFilter filter = new CarFilter();
+        filter.setManufacturerId(2L);
+
+        Slice<CarView> slice = carRepository.findMatchingViewSlice(CarSpecifications.matching(filter), PageRequest.of(0, 2, Sort.by("carId")));
+
+        assertEquals(List.of(2L, 3L), slice.getContent().stream().map(CarView::getCarId).toList());
+        assertTrue(slice.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 5L, 9L})
+    void findViewById_shouldReadCarViewInSingleStatement(long carId) {
+
+        Optional<CarView> carView = carRepository.findViewById(carId);
+
+        assertTrue(carView.isPresent());
+        assertEquals(carId, carView.get().getCarId());
+        assertNotNull(carView.get().getCarModel().getCarModelName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findViewsByIds_shouldReadExistingCarViewsInSingleStatement() {
+
+        List<CarView> carViews = carRepository.findViewsByIds(List.of(5L, 1L, 42L));
+
+        assertEquals(List.of(1L, 5L), carViews.stream().map(CarView::getCarId).sorted().toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findViewById_shouldChangeRevision_whenReferencedCategoryChanges() {
+
+        CarView carView = carRepository.findViewById(1L).orElseThrow();
+        Revision revision = Revision.of(carView);
+
+        assertNotNull(revision.getLastModified());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        Category category = categoryRepository.findById(carView.getCategory().getCategoryId()).orElseThrow();
+        category.setCategoryName("Renamed");
+        categoryRepository.saveAndFlush(category);
+
+        assertNotEquals(revision.getETag(), Revision.of(carRepository.findViewById(1L).orElseThrow()).getETag());
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.example.carrestservice.repository;
 
 import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.view.CategoryView;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -65,6 +66,20 @@ public class CategoryRepositoryTest {
         Assertions.assertEquals(10, categoryRepository.count());
     }
 
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L})
+    void deleteByCategoryId_shouldReturnOne_whenInputContainsExistingCategoryId(long categoryId) {
+        Assertions.assertEquals(1, categoryRepository.deleteByCategoryId(categoryId));
+        Assertions.assertEquals(9, categoryRepository.count());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
+    void deleteByCategoryId_shouldReturnZero_whenInputContainsNotExistingCategoryId(long categoryId) {
+        Assertions.assertEquals(0, categoryRepository.deleteByCategoryId(categoryId));
+        Assertions.assertEquals(10, categoryRepository.count());
+    }
+
     @ParameterizedTest
     @ValueSource(longs = {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L})
     void findById_shouldReturnCategory_whenInputContainsExistingCategoryId(long categoryId) {
@@ -133,5 +148,13 @@ public class CategoryRepositoryTest {
         Assertions.assertFalse(categoryRepository.existsByCategoryId(categoryId));
     }
 
+    @Test
+    void findAllViews_shouldReturnEveryCategory() {
+        List<CategoryView> categoryViews = categoryRepository.findAllViews();
+
+        Assertions.assertEquals(10, categoryViews.size());
+        Assertions.assertTrue(categoryViews.stream().anyMatch(view -> view.getCategoryId() == 1L && view.getCategoryName().equals("Sedan")));
+    }
+
 
 }
@@ -0,0 +1,110 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.entity.Car;
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.search.CarFilter;
+import com.example.carrestservice.search.CarSpecifications;
+import com.example.carrestservice.view.Fieldset;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_car_models.sql", "/sql/insert_categories.sql", "/sql/insert_manufacturers.sql", "/sql/insert_cars.sql"})
+public class FieldsetRepositoryTest {
+
+    static final List<String> CAR_FIELDS = List.of(
+            "carId",
+            "manufacturer.manufacturerId", "manufacturer.manufacturerName",
+            "manufactureYear",
+            "carModel.carModelId", "carModel.carModelName",
+            "category.categoryId", "category.categoryName");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    FieldsetRepository fieldsetRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findSlice_shouldReturnOnlyRequestedCarFields() {
+
+        Fieldset fieldset = Fieldset.parse("carId,carModel.carModelName,manufactureYear", CAR_FIELDS);
+
+        Slice<Map<String, Object>> slice = fieldsetRepository.findSlice(Car.class, CarSpecifications.matching(new CarFilter()), fieldset, PageRequest.of(0, 2, Sort.by("carId")));
+
+        assertEquals(List.of(
+                Map.of("carId", 1L, "manufactureYear", 2020, "carModel", Map.of("carModelName", "Camry")),
+                Map.of("carId", 2L, "manufactureYear", 2019, "carModel", Map.of("carModelName", "Civic"))
+        ), slice.getContent());
+        assertTrue(slice.hasNext());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findPage_shouldApplySpecificationAndCount_whenFilterIsNotEmpty() {
+
+        CarFilter filter = new CarFilter();
+        filter.setManufacturerName("Ford");
+
+        Fieldset fieldset = Fieldset.parse("carId,category", CAR_FIELDS);
+
+        Page<Map<String, Object>> page = fieldsetRepository.findPage(Car.class, CarSpecifications.matching(filter), fieldset, PageRequest.of(0, 2, Sort.by("carId")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(Map.of("carId", 2L, "category", Map.of("categoryId", 2L, "categoryName", "Hatchback")), page.getContent().get(0));
+    }
+
+    @Test
+    void findPage_shouldReturnOnlyRequestedCarModelFields() {
+
+        Fieldset fieldset = Fieldset.parse("carModelName", List.of("carModelId", "carModelName"));
+
+        Page<Map<String, Object>> page = fieldsetRepository.findPage(CarModel.class, (root, query, criteriaBuilder) -> null, fieldset, PageRequest.of(0, 3, Sort.by("carModelName")));
+
+        assertEquals(List.of(Map.of("carModelName", "3 Series"), Map.of("carModelName", "A4"), Map.of("carModelName", "Accord")), page.getContent());
+        assertEquals(10, page.getTotalElements());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+}
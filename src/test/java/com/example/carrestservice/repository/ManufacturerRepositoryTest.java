@@ -2,6 +2,7 @@ package com.example.carrestservice.repository;
 
 
 import com.example.carrestservice.entity.Manufacturer;
+import com.example.carrestservice.view.ManufacturerView;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -129,5 +130,13 @@ public class ManufacturerRepositoryTest {
         Assertions.assertFalse(manufacturerRepository.existsByManufacturerId(manufacturerId));
     }
 
+    @Test
+    void findAllViews_shouldReturnEveryManufacturer() {
+        List<ManufacturerView> manufacturerViews = manufacturerRepository.findAllViews();
+
+        Assertions.assertEquals(10, manufacturerViews.size());
+        Assertions.assertTrue(manufacturerViews.stream().anyMatch(view -> view.getManufacturerId() == 1L && view.getManufacturerName().equals("Toyota")));
+    }
+
 
 }
@@ -0,0 +1,70 @@
+package com.example.carrestservice.repository;
+
+import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.entity.Manufacturer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@SpringBootTest
+@Sql(scripts = {"/sql/drop_data.sql", "/sql/insert_car_models.sql", "/sql/insert_categories.sql", "/sql/insert_manufacturers.sql"})
+public class NameSearchRepositoryTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    NameSearchRepository nameSearchRepository;
+
+    @Test
+    void searchCarModels_shouldReturnSimilarName_whenQueryContainsTypo() {
+        List<CarModel> carModels = nameSearchRepository.searchCarModels("Camyr", 10);
+        assertFalse(carModels.isEmpty());
+        assertEquals("Camry", carModels.get(0).getCarModelName());
+        assertEquals(1L, carModels.get(0).getCarModelId());
+    }
+
+    @Test
+    void searchCarModels_shouldRankPrefixMatchesFirst() {
+        List<CarModel> carModels = nameSearchRepository.searchCarModels("co", 10);
+        assertEquals("Corolla", carModels.get(0).getCarModelName());
+    }
+
+    @Test
+    void searchCategories_shouldReturnCategory_whenQueryIsCaseInsensitivePrefix() {
+        List<Category> categories = nameSearchRepository.searchCategories("sed", 10);
+        assertEquals(List.of("Sedan"), categories.stream().map(Category::getCategoryName).toList());
+    }
+
+    @Test
+    void searchManufacturers_shouldReturnAtMostLimitMatches() {
+        List<Manufacturer> manufacturers = nameSearchRepository.searchManufacturers("o", 2);
+        assertEquals(2, manufacturers.size());
+    }
+
+    @Test
+    void searchManufacturers_shouldTreatWildcardsLiterally() {
+        assertTrue(nameSearchRepository.searchManufacturers("%", 10).isEmpty());
+    }
+
+}
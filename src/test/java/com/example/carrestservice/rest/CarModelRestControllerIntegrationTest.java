@@ -1,6 +1,7 @@
 package com.example.carrestservice.rest;
 
 import com.example.carrestservice.entity.CarModel;
+import com.example.carrestservice.service.CarModelService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,9 @@ public class CarModelRestControllerIntegrationTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    CarModelService carModelService;
+
     CarModel carModel;
 
     @BeforeEach
@@ -55,6 +59,7 @@ public class CarModelRestControllerIntegrationTest {
         carModel = new CarModel();
         carModel.setCarModelId(1L);
         carModel.setCarModelName("Test");
+        carModelService.refreshSuggestions();
         mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
     }
 
@@ -68,6 +73,25 @@ public class CarModelRestControllerIntegrationTest {
                 .andExpect(jsonPath("$.carModelName").value("Test"));
     }
 
+    @Test
+    public void suggestCarModels_shouldReturnCarModelsStartingWithPrefix() throws Exception {
+        mockMvc.perform(get("/car-models/suggest")
+                        .param("prefix", "c")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].carModelId").value(1))
+                .andExpect(jsonPath("$[0].carModelName").value("Camry"))
+                .andExpect(jsonPath("$[1].carModelName").value("Civic"));
+    }
+
+    @Test
+    public void suggestCarModels_shouldReturnBadRequestStatus_whenPrefixIsBlank() throws Exception {
+        mockMvc.perform(get("/car-models/suggest")
+                        .param("prefix", " "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void updateCarModel_shouldReturnNoContentStatus() throws Exception {
 
@@ -1,5 +1,6 @@
 package com.example.carrestservice.rest;
 
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Car;
 import com.example.carrestservice.entity.CarModel;
 import com.example.carrestservice.entity.Category;
@@ -10,11 +11,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
+import org.springframework.security.web.FilterChainProxy;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -22,8 +26,17 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -50,6 +63,12 @@ public class CarRestControllerIntegrationTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    FilterChainProxy springSecurityFilterChain;
+
     Car car;
 
     @BeforeEach
@@ -134,6 +153,149 @@ public class CarRestControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[0].carId").exists());
     }
 
+    @Test
+    public void getCars_shouldReturnSliceWithoutTotal_whenTotalIsNotRequested() throws Exception {
+
+        mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(car)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/cars")
+                        .param("withTotal", "false")
+                        .param("withApproximateTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Approximate-Total-Count"))
+                .andExpect(jsonPath("$.content[0].carId").exists())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void getCars_shouldReturnOnlyRequestedFields_whenFieldsAreRequested() throws Exception {
+
+        mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(car)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/cars")
+                        .param("fields", "carId,carModel.carModelName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].carId").exists())
+                .andExpect(jsonPath("$.content[0].carModel.carModelName").value("Explorer"))
+                .andExpect(jsonPath("$.content[0].carModel.carModelId").doesNotExist())
+                .andExpect(jsonPath("$.content[0].manufacturer").doesNotExist());
+    }
+
+    @Test
+    public void getCars_shouldReturnBadRequest_whenFieldIsNotSupported() throws Exception {
+
+        mockMvc.perform(get("/cars")
+                        .param("fields", "price"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void scrollCars_shouldReturnOKRequest() throws Exception {
+
+        mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(car)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/cars/scroll")
+                        .param("sortField", "manufactureYear")
+                        .param("pageSize", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].carId").exists())
+                .andExpect(jsonPath("$.hasPrevious").value(false));
+    }
+
+    @Test
+    public void exportCars_shouldStreamCarsAsCsv() throws Exception {
+
+        mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(car)))
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc.perform(get("/cars/export")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("carId,manufactureYear,manufacturerId,manufacturerName,carModelId,carModelName,categoryId,categoryName\n")))
+                .andExpect(content().string(containsString(",2024,1,Toyota,10,Explorer,1,Sedan\n")));
+    }
+
+    @Test
+    public void exportCars_shouldReturnBadRequest_whenFormatIsNotSupported() throws Exception {
+
+        mockMvc.perform(get("/cars/export")
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getCarFacets_shouldReturnBadRequest_whenYearRangeIsInverted() throws Exception {
+
+        mockMvc.perform(get("/cars/facets")
+                        .param("yearFrom", "2024")
+                        .param("yearTo", "2020"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getCarsByIds_shouldReturnExistingCarsInRequestOrder() throws Exception {
+
+        String response = mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(car)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        long carId = objectMapper.readTree(response).get("carId").asLong();
+
+        mockMvc.perform(get("/cars")
+                        .param("ids", "999999," + carId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].carId").value(carId));
+
+        mockMvc.perform(post("/cars/by-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(carId, 999999L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].carId").value(carId));
+
+        assertNotNull(cacheManager.getCache(CacheNames.CARS).get(carId));
+    }
+
+    @Test
+    public void getCarsByIds_shouldBePermitted_whenRequestHasNeitherAuthenticationNorCsrfToken() throws Exception {
+
+        MockMvc securedMockMvc = MockMvcBuilders.webAppContextSetup(wac)
+                .addFilters(springSecurityFilterChain)
+                .build();
+
+        securedMockMvc.perform(post("/cars/by-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1L))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void getCarsByIds_shouldReturnBadRequest_whenIdsAreEmpty() throws Exception {
+
+        mockMvc.perform(post("/cars/by-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void getCarById_shouldReturnOKRequest() throws Exception {
 
@@ -149,4 +311,64 @@ public class CarRestControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.carId").value(carId));
     }
+
+    @Test
+    public void getCarById_shouldReturnNotModified_untilCarOrItsReferencesChange() throws Exception {
+
+        String response = mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(car)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        long carId = objectMapper.readTree(response).get("carId").asLong();
+
+        String eTag = mockMvc.perform(get("/cars/" + carId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/cars/" + carId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Manufacturer manufacturer = new Manufacturer();
+        manufacturer.setManufacturerId(1L);
+        manufacturer.setManufacturerName("Renamed");
+
+        mockMvc.perform(put("/manufacturers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(manufacturer)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/cars/" + carId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.manufacturer.manufacturerName").value("Renamed"));
+    }
+
+    @Test
+    public void getCarById_shouldCacheCarUntilItIsRemoved() throws Exception {
+
+        String response = mockMvc.perform(post("/cars")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(car)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        Long carId = objectMapper.readTree(response).get("carId").asLong();
+
+        mockMvc.perform(get("/cars/" + carId))
+                .andExpect(status().isOk());
+
+        assertNotNull(cacheManager.getCache(CacheNames.CARS).get(carId));
+
+        mockMvc.perform(delete("/cars/" + carId))
+                .andExpect(status().isNoContent());
+
+        assertNull(cacheManager.getCache(CacheNames.CARS).get(carId));
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.carrestservice.rest;
 
 import com.example.carrestservice.entity.Category;
+import com.example.carrestservice.service.CategoryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,6 +46,8 @@ public class CategoryRestControllerIntegrationTest {
     MockMvc mockMvc;
     @Autowired
     ObjectMapper objectMapper;
+    @Autowired
+    CategoryService categoryService;
     Category category;
 
     @BeforeEach
@@ -52,6 +55,7 @@ public class CategoryRestControllerIntegrationTest {
         category = new Category();
         category.setCategoryId(1L);
         category.setCategoryName("Test");
+        categoryService.refreshSnapshot();
         mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
     }
 
@@ -65,6 +69,19 @@ public class CategoryRestControllerIntegrationTest {
                 .andExpect(jsonPath("$.categoryName").value("Test"));
     }
 
+    @Test
+    public void createCategories_shouldReturnPerItemResults() throws Exception {
+        mockMvc.perform(post("/categories/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"categoryName\":\"Test\"},{\"categoryName\":\"Sedan\"},{\"categoryName\":\"Test\"},null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].item.categoryName").value("Test"))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[2].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[3].status").value("INVALID"));
+    }
+
     @Test
     public void updateCategory_shouldReturnNoContentStatus() throws Exception {
 
@@ -1,6 +1,7 @@
 package com.example.carrestservice.rest;
 
 import com.example.carrestservice.entity.Manufacturer;
+import com.example.carrestservice.service.ManufacturerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -47,6 +48,8 @@ public class ManufacturerRestControllerIntegrationTest {
 
     @Autowired
     ObjectMapper objectMapper;
+    @Autowired
+    ManufacturerService manufacturerService;
 
     Manufacturer manufacturer;
 
@@ -55,6 +58,7 @@ public class ManufacturerRestControllerIntegrationTest {
         manufacturer = new Manufacturer();
         manufacturer.setManufacturerId(1L);
         manufacturer.setManufacturerName("Test");
+        manufacturerService.refreshSnapshot();
         mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
     }
 
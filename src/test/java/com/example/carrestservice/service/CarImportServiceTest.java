@@ -0,0 +1,83 @@
+package com.example.carrestservice.service;
+
+import com.example.carrestservice.batch.CarImportRejection;
+import com.example.carrestservice.batch.CarImportResult;
+import com.example.carrestservice.repository.CarImportRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CarImportServiceTest {
+
+    @InjectMocks
+    CarImportService carImportService;
+
+    @Mock
+    CarImportRepository carImportRepository;
+
+    @Test
+    void importCars_shouldReturnMergedAndRejectedRows() {
+
+        Reader csv = new StringReader("");
+        List<CarImportRejection> rejections = List.of(new CarImportRejection(3L, "Unknown manufacturer."));
+
+        when(carImportRepository.copyToStaging(csv))
+                .thenReturn(10L);
+        when(carImportRepository.countRejected())
+                .thenReturn(1L);
+        when(carImportRepository.findRejections(CarImportService.MAX_REPORTED_REJECTIONS))
+                .thenReturn(rejections);
+        when(carImportRepository.mergeIntoCars())
+                .thenReturn(new CarImportRepository.MergedRows(6L, 3L));
+
+        CarImportResult result = carImportService.importCars(csv);
+
+        assertEquals(10L, result.getTotalRows());
+        assertEquals(6L, result.getInsertedRows());
+        assertEquals(3L, result.getUpdatedRows());
+        assertEquals(1L, result.getRejectedRows());
+        assertEquals(rejections, result.getRejections());
+
+        verify(carImportRepository).resolveStaging();
+    }
+
+    @Test
+    void importCars_shouldNotQueryRejections_whenAllRowsAreResolved() {
+
+        Reader csv = new StringReader("");
+
+        when(carImportRepository.copyToStaging(csv))
+                .thenReturn(2L);
+        when(carImportRepository.countRejected())
+                .thenReturn(0L);
+        when(carImportRepository.mergeIntoCars())
+                .thenReturn(new CarImportRepository.MergedRows(2L, 0L));
+
+        CarImportResult result = carImportService.importCars(csv);
+
+        assertTrue(result.getRejections().isEmpty());
+
+        verify(carImportRepository, never()).findRejections(anyInt());
+    }
+
+    @Test
+    void importCars_shouldThrowException_whenInputIsNull() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> carImportService.importCars(null));
+
+        assertEquals("Car import file cannot be null!", exception.getMessage());
+
+        verifyNoInteractions(carImportRepository);
+    }
+
+}
@@ -1,25 +1,56 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.batch.BatchItemStatus;
+import com.example.carrestservice.cache.CacheInvalidationBus;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.CarModel;
 import com.example.carrestservice.exception.CarModelNameException;
 import com.example.carrestservice.exception.CarModelNotFoundException;
 import com.example.carrestservice.repository.CarModelRepository;
+import com.example.carrestservice.repository.FieldsetRepository;
+import com.example.carrestservice.repository.NameSearchRepository;
+import com.example.carrestservice.search.CarModelSuggestion;
+import com.example.carrestservice.view.CarModelView;
+import com.example.carrestservice.view.Fieldset;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +63,24 @@ public class CarModelServiceTest {
     CarModelService carModelService;
     @Mock
     CarModelRepository carModelRepository;
+
+    @Mock
+    CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    NameSearchRepository nameSearchRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    FieldsetRepository fieldsetRepository;
+
+    @Mock
+    CacheManager cacheManager;
+
+    @Spy
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     CarModel carModel;
 
     @BeforeEach
@@ -59,10 +108,7 @@ public class CarModelServiceTest {
     @Test
     void createCarModel_shouldReturnCarModel_whenInputContainsCarModel() {
 
-        when(carModelRepository.existsByCarModelName(carModel.getCarModelName()))
-                .thenReturn(false);
-
-        when(carModelRepository.save(carModel))
+        when(carModelRepository.saveAndFlush(carModel))
                 .thenReturn(carModel);
 
         CarModel actualCarModel = carModelService.createCarModel(carModel);
@@ -70,8 +116,8 @@ public class CarModelServiceTest {
         assertNotNull(actualCarModel);
         assertEquals(carModel, actualCarModel);
 
-        verify(carModelRepository).existsByCarModelName(carModel.getCarModelName());
-        verify(carModelRepository).save(carModel);
+        verify(carModelRepository, never()).existsByCarModelName(anyString());
+        verify(carModelRepository).saveAndFlush(carModel);
 
     }
 
@@ -82,25 +128,48 @@ public class CarModelServiceTest {
 
         assertEquals("Car model cannot be null!", exception.getMessage());
 
-        verify(carModelRepository, never()).existsByCarModelName(null);
-        verify(carModelRepository, never()).save(null);
+        verify(carModelRepository, never()).saveAndFlush(any());
 
     }
 
     @Test
     void createCarModel_shouldThrowException_whenInputContainsCarModelWithExistingCarModelName() {
 
-        when(carModelRepository.existsByCarModelName(carModel.getCarModelName()))
-                .thenReturn(true);
+        when(carModelRepository.saveAndFlush(carModel))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "car_models_car_model_name_key")));
 
         CarModelNameException exception = assertThrows(CarModelNameException.class, () -> carModelService.createCarModel(carModel));
 
         assertEquals("Car model name " + carModel.getCarModelName() + " already exists!", exception.getMessage());
 
-        verify(carModelRepository).existsByCarModelName(carModel.getCarModelName());
-        verify(carModelRepository, never()).save(carModel);
+        verify(carModelRepository, never()).existsByCarModelName(anyString());
+        verify(carModelRepository).saveAndFlush(carModel);
+
+    }
+    @Test
+    void createCarModels_shouldReturnPerItemResults_whenInputContainsDuplicates() {
+
+        CarModel existingCarModel = new CarModel("Camry");
+        CarModel newCarModel = new CarModel("Civic");
+        CarModel duplicateCarModel = new CarModel("Civic");
+
+        when(carModelRepository.findCarModelNamesIn(Set.of("Camry", "Civic")))
+                .thenReturn(Set.of("Camry"));
+        when(carModelRepository.saveAllAndFlush(List.of(newCarModel)))
+                .thenReturn(List.of(newCarModel));
+
+        List<BatchItemResult<CarModel>> results = carModelService.createCarModels(Arrays.asList(existingCarModel, newCarModel, duplicateCarModel, null));
 
+        assertEquals(List.of(BatchItemStatus.CONFLICT, BatchItemStatus.CREATED, BatchItemStatus.CONFLICT, BatchItemStatus.INVALID),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Car model name Camry already exists!", results.get(0).getMessage());
+        assertSame(newCarModel, results.get(1).getItem());
+        assertEquals("Car model cannot be null!", results.get(3).getMessage());
+
+        verify(carModelRepository).findCarModelNamesIn(Set.of("Camry", "Civic"));
+        verify(carModelRepository, never()).existsByCarModelName(anyString());
     }
+
     @Test
     void updateCarModel_shouldUpdateCarModel_whenInputContainsCarModel() {
 
@@ -116,6 +185,105 @@ public class CarModelServiceTest {
         verify(carModelRepository).existsByCarModelName(carModel.getCarModelName());
     }
 
+    @Test
+    void updateCarModel_shouldNotQueryRepository_whenNameFilterRulesOutCarModelName() {
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(new CarModelSuggestion(2L, "Camry")));
+        when(carModelRepository.findById(carModel.getCarModelId()))
+                .thenReturn(Optional.of(carModel));
+
+        carModelService.refreshSuggestions();
+        carModelService.updateCarModel(carModel);
+
+        verify(carModelRepository, never()).existsByCarModelName(anyString());
+        assertEquals(1, meterRegistry.get("existence.filter.checks").tag("result", "negative").counter().count());
+    }
+
+    @Test
+    void updateCarModel_shouldQueryRepository_whenNameFilterMightContainCarModelName() {
+
+        carModel.setCarModelName("Camry");
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(new CarModelSuggestion(2L, "Camry")));
+        when(carModelRepository.findById(carModel.getCarModelId()))
+                .thenReturn(Optional.of(carModel));
+        when(carModelRepository.existsByCarModelName("Camry"))
+                .thenReturn(true);
+
+        carModelService.refreshSuggestions();
+
+        assertThrows(CarModelNameException.class, () -> carModelService.updateCarModel(carModel));
+
+        verify(carModelRepository).existsByCarModelName("Camry");
+    }
+
+    @Test
+    void updateCarModel_shouldQueryRepository_whenNameWasWrittenAfterRebuild() {
+
+        CarModel createdCarModel = new CarModel("Supra");
+        createdCarModel.setCarModelId(2L);
+        carModel.setCarModelName("Supra");
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of());
+        when(carModelRepository.saveAndFlush(createdCarModel))
+                .thenReturn(createdCarModel);
+        when(carModelRepository.findById(carModel.getCarModelId()))
+                .thenReturn(Optional.of(carModel));
+        when(carModelRepository.existsByCarModelName("Supra"))
+                .thenReturn(true);
+
+        carModelService.refreshSuggestions();
+        carModelService.createCarModel(createdCarModel);
+
+        assertThrows(CarModelNameException.class, () -> carModelService.updateCarModel(carModel));
+
+        verify(carModelRepository).existsByCarModelName("Supra");
+    }
+
+    @Test
+    void createCarModels_shouldReportConflict_whenNameFilterIsMissingNameWrittenOnOtherReplica() {
+
+        CarModel otherReplicaCarModel = new CarModel("Supra");
+        CarModel newCarModel = new CarModel("Civic");
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(new CarModelSuggestion(2L, "Camry")));
+        when(carModelRepository.findCarModelNamesIn(Set.of("Supra", "Civic")))
+                .thenReturn(Set.of("Supra"));
+        when(carModelRepository.saveAllAndFlush(List.of(newCarModel)))
+                .thenReturn(List.of(newCarModel));
+
+        carModelService.refreshSuggestions();
+
+        List<BatchItemResult<CarModel>> results = carModelService.createCarModels(List.of(otherReplicaCarModel, newCarModel));
+
+        assertEquals(List.of(BatchItemStatus.CONFLICT, BatchItemStatus.CREATED), results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Car model name Supra already exists!", results.get(0).getMessage());
+    }
+
+    @Test
+    void updateCarModel_shouldThrowException_whenNameFilterIsMissingNameWrittenOnOtherReplica() {
+
+        carModel.setCarModelName("Supra");
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(new CarModelSuggestion(2L, "Camry")));
+        when(carModelRepository.findById(carModel.getCarModelId()))
+                .thenReturn(Optional.of(carModel));
+        when(carModelRepository.saveAndFlush(carModel))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "car_models_car_model_name_key")));
+
+        carModelService.refreshSuggestions();
+
+        CarModelNameException exception = assertThrows(CarModelNameException.class, () -> carModelService.updateCarModel(carModel));
+
+        assertEquals("Car model name Supra already exists!", exception.getMessage());
+        verify(carModelRepository, never()).existsByCarModelName(anyString());
+    }
+
     @Test
     void updateCarModel_shouldThrowException_whenInputContainsNull() {
 
@@ -167,15 +335,14 @@ public class CarModelServiceTest {
 
         long carModelId = 1L;
 
-        when(carModelRepository.existsByCarModelId(carModelId))
-                .thenReturn(true);
-
-        doNothing().when(carModelRepository).deleteById(carModelId);
+        when(carModelRepository.deleteByCarModelId(carModelId))
+                .thenReturn(1);
 
         carModelService.removeById(carModelId);
 
-        verify(carModelRepository).existsByCarModelId(carModelId);
-        verify(carModelRepository).deleteById(carModelId);
+        verify(carModelRepository).deleteByCarModelId(carModelId);
+        verify(carModelRepository, never()).existsByCarModelId(carModelId);
+        verify(carModelRepository, never()).deleteById(carModelId);
 
     }
 
@@ -183,15 +350,15 @@ public class CarModelServiceTest {
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void removeById_shouldThrowException_whenInputContainsNotExistingCarModelId(long carModelId) {
 
-        when(carModelRepository.existsByCarModelId(carModelId))
-                .thenReturn(false);
+        when(carModelRepository.deleteByCarModelId(carModelId))
+                .thenReturn(0);
 
         CarModelNotFoundException exception = assertThrows(CarModelNotFoundException.class,() -> carModelService.removeById(carModelId));
 
         assertEquals("Car model with Id " + carModelId + " not found.", exception.getMessage());
 
-        verify(carModelRepository).existsByCarModelId(carModelId);
-        verify(carModelRepository,never()).deleteById(carModelId);
+        verify(carModelRepository).deleteByCarModelId(carModelId);
+        verify(carModelRepository, never()).existsByCarModelId(carModelId);
 
     }
 
@@ -199,32 +366,302 @@ public class CarModelServiceTest {
     @MethodSource("pageableProvider")
     void getAll_shouldReturnCarModelPage_whenInputContainsCorrectPageable(Pageable pageable) {
 
-        Page page = new PageImpl(List.of(carModel), pageable, 2);
+        Page<CarModelView> page = new PageImpl<>(List.of(new CarModelView(1L, "Test", 0L, null)), pageable, 2);
 
-        when(carModelRepository.findAll(pageable))
+        when(carModelRepository.findViewPage(pageable))
                 .thenReturn(page);
 
-        Page actualPage = carModelService.getAll(pageable);
+        Page<CarModelView> actualPage = carModelService.getAll(pageable);
 
         assertEquals(page, actualPage);
 
-        verify(carModelRepository).findAll(pageable);
+        verify(carModelRepository).findViewPage(pageable);
+        verify(carModelRepository, never()).findAll(pageable);
+
+    }
+    @ParameterizedTest
+    @MethodSource("pageableProvider")
+    void getSlice_shouldReturnSlice_whenInputContainsCorrectPageable(Pageable pageable) {
+
+        Slice<CarModelView> slice = new SliceImpl<>(List.of(new CarModelView(1L, "Test", 0L, null)), pageable, true);
+
+        when(carModelRepository.findViewSlice(pageable))
+                .thenReturn(slice);
 
+        Slice<CarModelView> actualSlice = carModelService.getSlice(pageable);
+
+        assertEquals(slice, actualSlice);
+
+        verify(carModelRepository).findViewSlice(pageable);
+        verify(carModelRepository, never()).count();
     }
+
+    @Test
+    void getAll_shouldSelectOnlyRequestedFields_whenInputContainsFields() {
+
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(Map.of("carModelName", "Test")), pageable, 1);
+
+        when(fieldsetRepository.findPage(eq(CarModel.class), any(Specification.class), any(Fieldset.class), eq(pageable)))
+                .thenReturn(page);
+
+        assertEquals(page, carModelService.getAll("carModelName", pageable));
+
+        verify(carModelRepository, never()).findViewPage(pageable);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " , ", "carModelName,manufacturer"})
+    void getSlice_shouldThrowException_whenFieldsAreNotValid(String fields) {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> carModelService.getSlice(fields, PageRequest.of(0, 10)));
+
+        verifyNoInteractions(fieldsetRepository);
+    }
+
+    @Test
+    void exportAll_shouldPassEveryCarModelToConsumer() {
+
+        when(carModelRepository.streamAllByOrderByCarModelId())
+                .thenReturn(Stream.of(carModel));
+
+        List<CarModel> exported = new ArrayList<>();
+
+        carModelService.exportAll(exported::add);
+
+        assertEquals(List.of(carModel), exported);
+
+        verify(carModelRepository).streamAllByOrderByCarModelId();
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void getApproximateCount_shouldReturnEstimatedCount() {
+
+        when(carModelRepository.estimateCount())
+                .thenReturn(42L);
+
+        assertEquals(42L, carModelService.getApproximateCount());
+
+        verify(carModelRepository).estimateCount();
+    }
+
+    @Test
+    void getAll_shouldReturnWindow_whenInputContainsInitialScrollPosition() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.keyset();
+        Sort sort = Sort.by(Sort.Direction.DESC, "carModelName");
+        Sort keysetSort = sort.and(Sort.by(Sort.Direction.DESC, "carModelId"));
+
+        Window<CarModel> window = Window.from(List.of(carModel), index -> ScrollPosition.forward(Map.of("carModelId", 1L)));
+
+        when(carModelRepository.findAllBy(scrollPosition, keysetSort, Limit.of(10)))
+                .thenReturn(window);
+
+        Window<CarModel> actualWindow = carModelService.getAll(scrollPosition, sort, 10);
+
+        assertEquals(window, actualWindow);
+
+        verify(carModelRepository).findAllBy(scrollPosition, keysetSort, Limit.of(10));
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenInputContainsNotSupportedSortField() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carModelService.getAll(ScrollPosition.keyset(), Sort.by("unknown"), 10));
+
+        assertEquals("Sort field unknown is not supported for cursor pagination.", exception.getMessage());
+
+        verify(carModelRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenCursorDoesNotMatchSortField() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.forward(Map.of("carModelId", 1L));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carModelService.getAll(scrollPosition, Sort.by("carModelName"), 10));
+
+        assertEquals("Cursor does not match sort field carModelName.", exception.getMessage());
+
+        verify(carModelRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void search_shouldReturnMatches_whenInputContainsQuery() {
+
+        when(nameSearchRepository.searchCarModels("Cam", 10))
+                .thenReturn(List.of(carModel));
+
+        assertEquals(List.of(carModel), carModelService.search(" Cam ", 10));
+
+        verify(nameSearchRepository).searchCarModels("Cam", 10);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", "\t"})
+    void search_shouldThrowException_whenQueryIsBlank(String query) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> carModelService.search(query, 10));
+
+        assertEquals("Search query cannot be empty.", exception.getMessage());
+
+        verifyNoInteractions(nameSearchRepository);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 101})
+    void search_shouldThrowException_whenLimitIsOutOfRange(int limit) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> carModelService.search("Cam", limit));
+
+        assertEquals("Limit must be between 1 and 100.", exception.getMessage());
+
+        verifyNoInteractions(nameSearchRepository);
+    }
+
+    @Test
+    void suggest_shouldReturnCarModelsStartingWithPrefix_inNameOrder() {
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(
+                        new CarModelSuggestion(1L, "Camry"),
+                        new CarModelSuggestion(2L, "Civic"),
+                        new CarModelSuggestion(3L, "Corolla"),
+                        new CarModelSuggestion(4L, "Model S"),
+                        new CarModelSuggestion(5L, "Camaro")));
+
+        carModelService.refreshSuggestions();
+
+        List<CarModelSuggestion> suggestions = carModelService.suggest("cA", 10);
+
+        assertEquals(List.of("Camaro", "Camry"), suggestions.stream().map(CarModelSuggestion::getCarModelName).toList());
+        assertEquals(List.of(5L, 1L), suggestions.stream().map(CarModelSuggestion::getCarModelId).toList());
+        assertEquals(1, carModelService.suggest("c", 1).size());
+        assertTrue(carModelService.suggest("x", 10).isEmpty());
+
+        verify(carModelRepository).findAllSuggestions();
+        verifyNoInteractions(nameSearchRepository);
+    }
+
+    @Test
+    void suggest_shouldReflectCreatedUpdatedAndRemovedCarModels() {
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(new CarModelSuggestion(1L, "Camry")));
+        when(carModelRepository.saveAndFlush(any(CarModel.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(carModelRepository.findById(1L))
+                .thenReturn(Optional.of(carModel));
+        when(carModelRepository.deleteByCarModelId(2L))
+                .thenReturn(1);
+
+        carModelService.refreshSuggestions();
+
+        CarModel createdCarModel = new CarModel("Civic");
+        createdCarModel.setCarModelId(2L);
+        carModelService.createCarModel(createdCarModel);
+
+        assertEquals(List.of("Camry", "Civic"), carModelService.suggest("C", 10).stream().map(CarModelSuggestion::getCarModelName).toList());
+
+        CarModel updatedCarModel = new CarModel("Celica");
+        updatedCarModel.setCarModelId(1L);
+        carModelService.updateCarModel(updatedCarModel);
+
+        assertEquals(List.of("Celica", "Civic"), carModelService.suggest("C", 10).stream().map(CarModelSuggestion::getCarModelName).toList());
+
+        carModelService.removeById(2L);
+
+        assertEquals(List.of("Celica"), carModelService.suggest("C", 10).stream().map(CarModelSuggestion::getCarModelName).toList());
+
+        verify(carModelRepository, never()).existsByCarModelName(anyString());
+        verify(cacheInvalidationBus, times(2)).publish(CacheNames.CAR_MODEL_SUGGESTIONS, 2L);
+        verify(cacheInvalidationBus).publish(CacheNames.CAR_MODEL_SUGGESTIONS, 1L);
+    }
+
+    @Test
+    void suggest_shouldMergeCarModelsCreatedInBatch_inNameOrder() {
+
+        CarModel corolla = new CarModel("Corolla");
+        corolla.setCarModelId(3L);
+        CarModel accord = new CarModel("Accord");
+        accord.setCarModelId(4L);
+        CarModel civic = new CarModel("civic");
+        civic.setCarModelId(5L);
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(new CarModelSuggestion(1L, "Camry"), new CarModelSuggestion(2L, "Supra")));
+        when(carModelRepository.findCarModelNamesIn(Set.of("Corolla", "Accord", "civic")))
+                .thenReturn(Set.of());
+        when(carModelRepository.saveAllAndFlush(List.of(corolla, accord, civic)))
+                .thenReturn(List.of(corolla, accord, civic));
+
+        carModelService.refreshSuggestions();
+        carModelService.createCarModels(List.of(corolla, accord, civic));
+
+        assertEquals(List.of("Camry", "civic", "Corolla"), carModelService.suggest("c", 10).stream().map(CarModelSuggestion::getCarModelName).toList());
+        assertEquals(List.of("Accord"), carModelService.suggest("A", 10).stream().map(CarModelSuggestion::getCarModelName).toList());
+    }
+
+    @Test
+    void refreshSuggestion_shouldReloadOnlyChangedCarModel_whenOtherReplicaWroteIt() {
+
+        when(carModelRepository.findAllSuggestions())
+                .thenReturn(List.of(new CarModelSuggestion(1L, "Camry"), new CarModelSuggestion(2L, "Civic")));
+        when(carModelRepository.findSuggestionById(1L))
+                .thenReturn(Optional.of(new CarModelSuggestion(1L, "Celica")));
+        when(carModelRepository.findSuggestionById(2L))
+                .thenReturn(Optional.empty());
+
+        carModelService.refreshSuggestions();
+        carModelService.refreshSuggestion(1L);
+        carModelService.refreshSuggestion(2L);
+
+        assertEquals(List.of("Celica"), carModelService.suggest("C", 10).stream().map(CarModelSuggestion::getCarModelName).toList());
+
+        verify(carModelRepository).findAllSuggestions();
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", "\t"})
+    void suggest_shouldThrowException_whenPrefixIsBlank(String prefix) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> carModelService.suggest(prefix, 10));
+
+        assertEquals("Prefix cannot be empty.", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 101})
+    void suggest_shouldThrowException_whenLimitIsOutOfRange(int limit) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> carModelService.suggest("Cam", limit));
+
+        assertEquals("Limit must be between 1 and 100.", exception.getMessage());
+    }
+
     @Test
     void getById_shouldReturnCarModel_whenInputContainsExistingCarModelId() {
 
         long carModelId = 1L;
 
-        when(carModelRepository.findById(carModelId))
-                .thenReturn(Optional.ofNullable(carModel));
+        CarModelView carModelView = new CarModelView(carModelId, "Test", 0L, null);
+
+        when(carModelRepository.findViewById(carModelId))
+                .thenReturn(Optional.of(carModelView));
 
-        CarModel actualCarModel = carModelService.getById(carModelId);
+        CarModelView actualCarModel = carModelService.getById(carModelId);
 
         assertNotNull(actualCarModel);
-        assertEquals(carModel, actualCarModel);
+        assertEquals(carModelView, actualCarModel);
 
-        verify(carModelRepository).findById(carModelId);
+        verify(carModelRepository).findViewById(carModelId);
+        verify(carModelRepository, never()).findById(carModelId);
 
     }
 
@@ -232,16 +669,45 @@ public class CarModelServiceTest {
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void getById_shouldThrowException_whenInputContainsNotExistingCarModelId(long carModelId) {
 
-        when(carModelRepository.findById(carModelId))
+        when(carModelRepository.findViewById(carModelId))
                 .thenReturn(Optional.empty());
 
         CarModelNotFoundException exception = assertThrows(CarModelNotFoundException.class, () -> carModelService.getById(carModelId));
 
         assertEquals("Car model with Id " + carModelId + " not found.", exception.getMessage());
 
-        verify(carModelRepository).findById(carModelId);
+        verify(carModelRepository).findViewById(carModelId);
 
     }
 
+    @Test
+    void getByIds_shouldLoadOnlyCacheMissesInSingleQuery_andKeepRequestOrder() {
+
+        CarModelView cachedCarModelView = new CarModelView(2L, "Corolla", 0L, null);
+        CarModelView loadedCarModelView = new CarModelView(1L, "Test", 0L, null);
+
+        Cache cache = new ConcurrentMapCache(CacheNames.CAR_MODELS);
+        cache.put(2L, cachedCarModelView);
+
+        when(cacheManager.getCache(CacheNames.CAR_MODELS))
+                .thenReturn(cache);
+        when(carModelRepository.findViewsByIds(List.of(1L)))
+                .thenReturn(List.of(loadedCarModelView));
+
+        List<CarModelView> actualCarModels = carModelService.getByIds(List.of(2L, 1L));
+
+        assertEquals(List.of(cachedCarModelView, loadedCarModelView), actualCarModels);
+        assertEquals(loadedCarModelView, cache.get(1L).get());
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    void getByIds_shouldThrowException_whenIdsAreEmpty(List<Long> carModelIds) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carModelService.getByIds(carModelIds));
+
+        assertEquals("Ids cannot be empty.", exception.getMessage());
+    }
 
 }
@@ -1,12 +1,24 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.batch.BatchItemStatus;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Car;
 import com.example.carrestservice.entity.CarModel;
 import com.example.carrestservice.entity.Category;
 import com.example.carrestservice.entity.Manufacturer;
 import com.example.carrestservice.exception.CarException;
 import com.example.carrestservice.exception.CarNotFoundException;
+import com.example.carrestservice.repository.CarFacetRepository;
 import com.example.carrestservice.repository.CarRepository;
+import com.example.carrestservice.repository.FieldsetRepository;
+import com.example.carrestservice.search.CarFacets;
+import com.example.carrestservice.search.CarFilter;
+import com.example.carrestservice.search.FacetCount;
+import com.example.carrestservice.view.CarView;
+import com.example.carrestservice.view.Fieldset;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,14 +28,32 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,8 +67,22 @@ public class CarServiceTest {
     @Mock
     CarRepository carRepository;
 
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    CarFacetRepository carFacetRepository;
+
+    @Mock
+    FieldsetRepository fieldsetRepository;
+
+    @Mock
+    CacheManager cacheManager;
+
     Car car;
 
+    CarView carView;
+
     @BeforeEach
     void setUp() {
 
@@ -61,6 +105,8 @@ public class CarServiceTest {
                 .carModel(carModel)
                 .category(category)
                 .build();
+
+        carView = new CarView(1L, 2020, 0L, null, 1L, "Toyota", 0L, null, 1L, "Test", 0L, null, 1L, "Sedan", 0L, null);
     }
     static Stream<Pageable> pageableProvider() {
         return Stream.of(
@@ -80,18 +126,15 @@ public class CarServiceTest {
     @Test
     void createCar_shouldReturnCar_whenInputIsValid() {
 
-        when(carRepository.existsByCarModel_CarModelId(car.getCarModel().getCarModelId()))
-                .thenReturn(false);
-
-        when(carRepository.save(car)).thenReturn(car);
+        when(carRepository.saveAndFlush(car)).thenReturn(car);
 
         Car actualCar = carService.createCar(car);
 
         assertNotNull(actualCar);
         assertEquals(car, actualCar);
 
-        verify(carRepository).existsByCarModel_CarModelId(car.getCarModel().getCarModelId());
-        verify(carRepository).save(car);
+        verify(carRepository, never()).existsByCarModel_CarModelId(anyLong());
+        verify(carRepository).saveAndFlush(car);
     }
 
     @Test
@@ -101,22 +144,76 @@ public class CarServiceTest {
 
         assertEquals("Car cannot be null!", exception.getMessage());
 
-        verify(carRepository, never()).existsByCarModel_CarModelId(anyLong());
-        verify(carRepository, never()).save(any(Car.class));
+        verify(carRepository, never()).saveAndFlush(any(Car.class));
     }
 
     @Test
     void createCar_shouldThrowException_whenCarModelAlreadyExists() {
 
-        when(carRepository.existsByCarModel_CarModelId(car.getCarModel().getCarModelId()))
-                .thenReturn(true);
+        when(carRepository.saveAndFlush(car))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "cars_car_model_id_key")));
 
         CarException exception = assertThrows(CarException.class, () -> carService.createCar(car));
 
         assertEquals("Car with car model Id " + car.getCarModel().getCarModelId() + " already exist!", exception.getMessage());
 
-        verify(carRepository).existsByCarModel_CarModelId(car.getCarModel().getCarModelId());
-        verify(carRepository, never()).save(car);
+        verify(carRepository, never()).existsByCarModel_CarModelId(anyLong());
+        verify(carRepository).saveAndFlush(car);
+    }
+
+    @Test
+    void createCar_shouldRethrowException_whenOtherConstraintIsViolated() {
+
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "fk_cars_category_id"));
+
+        when(carRepository.saveAndFlush(car))
+                .thenThrow(violation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> carService.createCar(car));
+
+        assertSame(violation, exception);
+    }
+
+    @Test
+    void createCars_shouldReturnPerItemResults_whenInputContainsExistingCarModelId() {
+
+        CarModel otherCarModel = new CarModel();
+        otherCarModel.setCarModelId(2L);
+
+        Car otherCar = Car.builder()
+                .manufacturer(car.getManufacturer())
+                .manufactureYear(2023)
+                .carModel(otherCarModel)
+                .category(car.getCategory())
+                .build();
+
+        when(carRepository.findCarModelIdsIn(Set.of(1L, 2L)))
+                .thenReturn(Set.of(1L));
+        when(carRepository.saveAllAndFlush(List.of(otherCar)))
+                .thenReturn(List.of(otherCar));
+
+        List<BatchItemResult<Car>> results = carService.createCars(Arrays.asList(car, otherCar, null));
+
+        assertEquals(List.of(BatchItemStatus.CONFLICT, BatchItemStatus.CREATED, BatchItemStatus.INVALID),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Car with car model Id 1 already exist!", results.get(0).getMessage());
+        assertSame(otherCar, results.get(1).getItem());
+
+        verify(carRepository).findCarModelIdsIn(Set.of(1L, 2L));
+        verify(carRepository, never()).existsByCarModel_CarModelId(anyLong());
+    }
+
+    @Test
+    void createCars_shouldThrowException_whenOtherTransactionCreatedSameCarModelId() {
+
+        when(carRepository.findCarModelIdsIn(Set.of(1L)))
+                .thenReturn(Set.of());
+        when(carRepository.saveAllAndFlush(List.of(car)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "cars_car_model_id_key")));
+
+        CarException exception = assertThrows(CarException.class, () -> carService.createCars(List.of(car)));
+
+        assertEquals("One of the car model Ids already exists!", exception.getMessage());
     }
 
     @Test
@@ -182,27 +279,27 @@ public class CarServiceTest {
 
         long carId = 1L;
 
-        when(carRepository.existsByCarId(carId)).thenReturn(true);
-        doNothing().when(carRepository).deleteById(carId);
+        when(carRepository.deleteByCarId(carId)).thenReturn(1);
 
         carService.removeById(carId);
 
-        verify(carRepository).existsByCarId(carId);
-        verify(carRepository).deleteById(carId);
+        verify(carRepository).deleteByCarId(carId);
+        verify(carRepository, never()).existsByCarId(carId);
+        verify(carRepository, never()).deleteById(carId);
     }
 
     @ParameterizedTest
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void removeById_shouldThrowException_whenCarDoesNotExist(long carId) {
 
-        when(carRepository.existsByCarId(carId)).thenReturn(false);
+        when(carRepository.deleteByCarId(carId)).thenReturn(0);
 
         CarNotFoundException exception = assertThrows(CarNotFoundException.class, () -> carService.removeById(carId));
 
         assertEquals("Car with Id " + carId + " not found!", exception.getMessage());
 
-        verify(carRepository).existsByCarId(carId);
-        verify(carRepository, never()).deleteById(carId);
+        verify(carRepository).deleteByCarId(carId);
+        verify(carRepository, never()).existsByCarId(carId);
 
     }
 
@@ -210,42 +307,346 @@ public class CarServiceTest {
     @MethodSource("pageableProvider")
     void getAll_shouldReturnPageOfCars_whenInputIsValid(Pageable pageable) {
 
-        Page<Car> page = new PageImpl<>(List.of(car), pageable, 2);
+        Page<CarView> page = new PageImpl<>(List.of(carView), pageable, 2);
 
-        when(carRepository.findAll(pageable)).thenReturn(page);
+        when(carRepository.findViewPage(pageable)).thenReturn(page);
 
-        Page<Car> actualPage = carService.getAll(pageable);
+        Page<CarView> actualPage = carService.getAll(pageable);
 
         assertEquals(page, actualPage);
 
-        verify(carRepository).findAll(pageable);
+        verify(carRepository).findViewPage(pageable);
+        verify(carRepository, never()).findAll(pageable);
+    }
+
+    @ParameterizedTest
+    @MethodSource("pageableProvider")
+    void getSlice_shouldReturnSlice_whenInputContainsCorrectPageable(Pageable pageable) {
+
+        Slice<CarView> slice = new SliceImpl<>(List.of(carView), pageable, true);
+
+        when(carRepository.findViewSlice(pageable))
+                .thenReturn(slice);
+
+        Slice<CarView> actualSlice = carService.getSlice(pageable);
+
+        assertEquals(slice, actualSlice);
+
+        verify(carRepository).findViewSlice(pageable);
+        verify(carRepository, never()).count();
+    }
+
+    @Test
+    void exportAll_shouldPassEveryCarToConsumer() {
+
+        when(carRepository.streamAllByOrderByCarId())
+                .thenReturn(Stream.of(car));
+
+        List<Car> exported = new ArrayList<>();
+
+        carService.exportAll(exported::add);
+
+        assertEquals(List.of(car), exported);
+
+        verify(carRepository).streamAllByOrderByCarId();
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void getAll_shouldUseSpecification_whenFilterIsNotEmpty() {
+
+        CarFilter filter = new CarFilter();
+        filter.setManufacturerId(1L);
+
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<CarView> page = new PageImpl<>(List.of(carView), pageable, 1);
+
+        when(carRepository.findMatchingViewPage(any(Specification.class), eq(pageable)))
+                .thenReturn(page);
+
+        assertEquals(page, carService.getAll(filter, pageable));
+
+        verify(carRepository, never()).findViewPage(pageable);
+    }
+
+    @Test
+    void getAll_shouldNotUseSpecification_whenFilterIsEmpty() {
+
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<CarView> page = new PageImpl<>(List.of(carView), pageable, 1);
+
+        when(carRepository.findViewPage(pageable))
+                .thenReturn(page);
+
+        assertEquals(page, carService.getAll(new CarFilter(), pageable));
+
+        verify(carRepository, never()).findMatchingViewPage(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void getSlice_shouldUseSpecification_whenFilterIsNotEmpty() {
+
+        CarFilter filter = new CarFilter();
+        filter.setModelNamePrefix("Cam");
+
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<CarView> slice = new SliceImpl<>(List.of(carView), pageable, false);
+
+        when(carRepository.findMatchingViewSlice(any(Specification.class), eq(pageable)))
+                .thenReturn(slice);
+
+        assertEquals(slice, carService.getSlice(filter, pageable));
+
+        verify(carRepository, never()).findViewSlice(pageable);
+    }
+
+    @Test
+    void getSlice_shouldSelectOnlyRequestedFields_whenInputContainsFields() {
+
+        CarFilter filter = new CarFilter();
+        filter.setModelNamePrefix("Cam");
+
+        Pageable pageable = PageRequest.of(0, 10);
+        Slice<Map<String, Object>> slice = new SliceImpl<>(List.of(Map.of("carId", 1L)), pageable, false);
+
+        when(fieldsetRepository.findSlice(eq(Car.class), any(Specification.class), any(Fieldset.class), eq(pageable)))
+                .thenReturn(slice);
+
+        assertEquals(slice, carService.getSlice(filter, "carId", pageable));
+
+        verify(carRepository, never()).findMatchingViewSlice(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenFieldsContainNotSupportedField() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getAll(new CarFilter(), "carId,price", PageRequest.of(0, 10)));
+
+        assertEquals("Field price is not supported.", exception.getMessage());
+
+        verifyNoInteractions(fieldsetRepository);
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenFilterContainsInvertedYearRange() {
+
+        CarFilter filter = new CarFilter();
+        filter.setYearFrom(2024);
+        filter.setYearTo(2020);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getAll(filter, PageRequest.of(0, 10)));
+
+        assertEquals("Manufacture year range is not valid.", exception.getMessage());
+
+        verify(carRepository, never()).findMatchingViewPage(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void getFacets_shouldReturnFacetCounts_whenFilterIsValid() {
+
+        CarFilter filter = new CarFilter();
+        filter.setCategoryName("Sedan");
+
+        CarFacets facets = new CarFacets(1,
+                List.of(new FacetCount(1L, "Toyota", 1)),
+                List.of(new FacetCount(1L, "Sedan", 1)),
+                List.of(new FacetCount(2020L, "2020", 1)));
+
+        when(carFacetRepository.countFacets(filter))
+                .thenReturn(facets);
+
+        assertEquals(facets, carService.getFacets(filter));
+
+        verify(carFacetRepository).countFacets(filter);
+    }
+
+    @Test
+    void getFacets_shouldReadSummary_whenFilterIsEmpty() {
+
+        CarFacets facets = new CarFacets(0, List.of(), List.of(), List.of());
+
+        when(carFacetRepository.countFacetsFromSummary())
+                .thenReturn(facets);
+
+        assertEquals(facets, carService.getFacets(new CarFilter()));
+
+        verify(carFacetRepository, never()).countFacets(any());
+    }
+
+    @Test
+    void getFacets_shouldThrowException_whenFilterContainsInvertedYearRange() {
+
+        CarFilter filter = new CarFilter();
+        filter.setYearFrom(2024);
+        filter.setYearTo(2020);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> carService.getFacets(filter));
+
+        assertEquals("Manufacture year range is not valid.", exception.getMessage());
+
+        verifyNoInteractions(carFacetRepository);
+    }
+
+    @Test
+    void getApproximateCount_shouldReturnEstimatedCount() {
+
+        when(carRepository.estimateCount())
+                .thenReturn(42L);
+
+        assertEquals(42L, carService.getApproximateCount());
+
+        verify(carRepository).estimateCount();
+    }
+
+    @Test
+    void getAll_shouldReturnWindow_whenInputContainsInitialScrollPosition() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.keyset();
+        Sort sort = Sort.by(Sort.Direction.DESC, "manufactureYear");
+        Sort keysetSort = sort.and(Sort.by(Sort.Direction.DESC, "carId"));
+
+        Window<Car> window = Window.from(List.of(car), index -> ScrollPosition.forward(Map.of("carId", 1L)));
+
+        when(carRepository.findAllBy(scrollPosition, keysetSort, Limit.of(10)))
+                .thenReturn(window);
+
+        Window<Car> actualWindow = carService.getAll(scrollPosition, sort, 10);
+
+        assertEquals(window, actualWindow);
+
+        verify(carRepository).findAllBy(scrollPosition, keysetSort, Limit.of(10));
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenInputContainsNotSupportedSortField() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getAll(ScrollPosition.keyset(), Sort.by("unknown"), 10));
+
+        assertEquals("Sort field unknown is not supported for cursor pagination.", exception.getMessage());
+
+        verify(carRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenCursorDoesNotMatchSortField() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.forward(Map.of("carId", 1L));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getAll(scrollPosition, Sort.by("manufactureYear"), 10));
+
+        assertEquals("Cursor does not match sort field manufactureYear.", exception.getMessage());
+
+        verify(carRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenCursorValueHasWrongType() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.forward(Map.of("manufactureYear", "2020", "carId", 1));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getAll(scrollPosition, Sort.by("manufactureYear"), 10));
+
+        assertEquals("Cursor value of manufactureYear is not valid.", exception.getMessage());
+
+        verify(carRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldConvertCursorValuesToFieldTypes_andDropUnknownKeys() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.backward(Map.of("manufactureYear", 2020, "carId", 7, "unknown", "x"));
+
+        when(carRepository.findAllBy(any(KeysetScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
+
+        carService.getAll(scrollPosition, Sort.by("manufactureYear"), 10);
+
+        verify(carRepository).findAllBy(ScrollPosition.backward(Map.of("manufactureYear", 2020, "carId", 7L)),
+                Sort.by("manufactureYear").and(Sort.by("carId")), Limit.of(10));
     }
 
     @Test
     void getById_shouldReturnCar_whenCarExists() {
         long carId = 1L;
 
-        when(carRepository.findById(carId)).thenReturn(Optional.of(car));
+        when(carRepository.findViewById(carId)).thenReturn(Optional.of(carView));
 
-        Car actualCar = carService.getById(carId);
+        CarView actualCar = carService.getById(carId);
 
         assertNotNull(actualCar);
-        assertEquals(car, actualCar);
+        assertEquals(carView, actualCar);
+        assertEquals("Toyota", actualCar.getManufacturer().getManufacturerName());
 
-        verify(carRepository).findById(carId);
+        verify(carRepository).findViewById(carId);
+        verify(carRepository, never()).findById(carId);
     }
 
     @ParameterizedTest
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void getById_shouldThrowException_whenCarDoesNotExist(long carId) {
 
-        when(carRepository.findById(carId)).thenReturn(Optional.empty());
+        when(carRepository.findViewById(carId)).thenReturn(Optional.empty());
 
         CarNotFoundException exception = assertThrows(CarNotFoundException.class, () -> carService.getById(carId));
 
         assertEquals("Car with Id " + carId + " not found.", exception.getMessage());
 
-        verify(carRepository).findById(carId);
+        verify(carRepository).findViewById(carId);
+    }
+
+    @Test
+    void getByIds_shouldLoadOnlyCacheMissesInSingleQuery_andKeepRequestOrder() {
+
+        CarView cachedCarView = new CarView(2L, 2021, 0L, null, 1L, "Toyota", 0L, null, 2L, "Corolla", 0L, null, 1L, "Sedan", 0L, null);
+
+        Cache cache = new ConcurrentMapCache(CacheNames.CARS);
+        cache.put(2L, cachedCarView);
+
+        when(cacheManager.getCache(CacheNames.CARS))
+                .thenReturn(cache);
+        when(carRepository.findViewsByIds(List.of(1L, 3L)))
+                .thenReturn(List.of(carView));
+
+        List<CarView> actualCars = carService.getByIds(List.of(2L, 1L, 3L, 2L));
+
+        assertEquals(List.of(cachedCarView, carView), actualCars);
+        assertEquals(carView, cache.get(1L).get());
+        assertNull(cache.get(3L));
+
+        verify(carRepository).findViewsByIds(List.of(1L, 3L));
+        verify(carRepository, never()).findViewById(anyLong());
+    }
+
+    @Test
+    void getByIds_shouldNotQueryRepository_whenAllCarsAreCached() {
+
+        Cache cache = new ConcurrentMapCache(CacheNames.CARS);
+        cache.put(1L, carView);
+
+        when(cacheManager.getCache(CacheNames.CARS))
+                .thenReturn(cache);
+
+        assertEquals(List.of(carView), carService.getByIds(List.of(1L)));
+
+        verify(carRepository, never()).findViewsByIds(anyCollection());
+    }
+
+    @Test
+    void getByIds_shouldThrowException_whenTooManyIdsAreRequested() {
+
+        List<Long> carIds = LongStream.rangeClosed(1, 1001).boxed().toList();
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getByIds(carIds));
+
+        assertEquals("At most 1000 ids can be requested.", exception.getMessage());
+
+        verify(carRepository, never()).findViewsByIds(anyCollection());
     }
 
 }
@@ -1,25 +1,48 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.batch.BatchItemStatus;
+import com.example.carrestservice.cache.CacheInvalidationBus;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Category;
 import com.example.carrestservice.exception.CategoryNameException;
 import com.example.carrestservice.exception.CategoryNotFoundException;
 import com.example.carrestservice.repository.CategoryRepository;
+import com.example.carrestservice.repository.NameSearchRepository;
+import com.example.carrestservice.view.CategoryView;
+import com.example.carrestservice.view.Revision;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,13 +57,28 @@ public class CategoryServiceTest {
     @Mock
     CategoryRepository categoryRepository;
 
+    @Mock
+    CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    NameSearchRepository nameSearchRepository;
+
     Category category;
 
+    CategoryView categoryView;
+
     @BeforeEach
     void setUp() {
         category = new Category();
         category.setCategoryId(1L);
         category.setCategoryName("Test");
+
+        categoryView = new CategoryView(1L, "Test", 0L, null);
+
+        when(categoryRepository.findAllViews())
+                .thenReturn(List.of(categoryView));
+
+        categoryService.refreshSnapshot();
     }
 
     static Stream<Pageable> pageableProvider() {
@@ -58,22 +96,33 @@ public class CategoryServiceTest {
         );
     }
 
+    Category newCategory(long categoryId, String categoryName) {
+        Category newCategory = new Category();
+        newCategory.setCategoryId(categoryId);
+        newCategory.setCategoryName(categoryName);
+        return newCategory;
+    }
+
+    CategoryView newCategoryView(long categoryId, String categoryName) {
+        return new CategoryView(categoryId, categoryName, 0L, null);
+    }
+
     @Test
     void createCategory_shouldReturnCategory_whenInputContainsCategory() {
 
-        when(categoryRepository.existsByCategoryName(category.getCategoryName()))
-                .thenReturn(false);
+        Category createdCategory = newCategory(2L, "New");
 
-        when(categoryRepository.save(category))
-                .thenReturn(category);
+        when(categoryRepository.saveAndFlush(createdCategory))
+                .thenReturn(createdCategory);
 
-        Category actualCategory = categoryService.createCategory(category);
+        Category actualCategory = categoryService.createCategory(createdCategory);
 
         assertNotNull(actualCategory);
-        assertEquals(category, actualCategory);
+        assertEquals(createdCategory, actualCategory);
 
-        verify(categoryRepository).existsByCategoryName(category.getCategoryName());
-        verify(categoryRepository).save(category);
+        verify(categoryRepository).saveAndFlush(createdCategory);
+        verify(categoryRepository, times(2)).findAllViews();
+        verify(categoryRepository, never()).existsByCategoryName(anyString());
     }
 
     @Test
@@ -83,37 +132,97 @@ public class CategoryServiceTest {
 
         assertEquals("Category cannot be null!", exception.getMessage());
 
-        verify(categoryRepository, never()).existsByCategoryName(null);
-        verify(categoryRepository, never()).save(null);
+        verify(categoryRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void createCategory_shouldThrowException_whenInputContainsCategoryWithExistingName() {
 
-        when(categoryRepository.existsByCategoryName(category.getCategoryName()))
-                .thenReturn(true);
+        Category createdCategory = newCategory(2L, category.getCategoryName());
 
-        CategoryNameException exception = assertThrows(CategoryNameException.class, () -> categoryService.createCategory(category));
+        when(categoryRepository.saveAndFlush(createdCategory))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "categories_category_name_key")));
+
+        CategoryNameException exception = assertThrows(CategoryNameException.class, () -> categoryService.createCategory(createdCategory));
 
         assertEquals("Category name " + category.getCategoryName() + " already exists!", exception.getMessage());
 
-        verify(categoryRepository).existsByCategoryName(category.getCategoryName());
-        verify(categoryRepository, never()).save(category);
+        verify(categoryRepository, never()).existsByCategoryName(anyString());
+        verify(categoryRepository).saveAndFlush(createdCategory);
+        verify(categoryRepository).findAllViews();
+    }
+
+    @Test
+    void createCategories_shouldReturnPerItemResults_whenInputContainsDuplicates() {
+
+        Category existingCategory = new Category("Sedan");
+        Category newCategory = new Category("Coupe");
+        Category duplicateCategory = new Category("Coupe");
+
+        when(categoryRepository.findCategoryNamesIn(Set.of("Sedan", "Coupe")))
+                .thenReturn(Set.of("Sedan"));
+        when(categoryRepository.saveAllAndFlush(List.of(newCategory)))
+                .thenReturn(List.of(newCategory));
+
+        List<BatchItemResult<Category>> results = categoryService.createCategories(Arrays.asList(existingCategory, newCategory, duplicateCategory, null));
+
+        assertEquals(List.of(BatchItemStatus.CONFLICT, BatchItemStatus.CREATED, BatchItemStatus.CONFLICT, BatchItemStatus.INVALID),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Category name Sedan already exists!", results.get(0).getMessage());
+        assertSame(newCategory, results.get(1).getItem());
+        assertEquals("Category cannot be null!", results.get(3).getMessage());
+
+        verify(categoryRepository).findCategoryNamesIn(Set.of("Sedan", "Coupe"));
+        verify(categoryRepository, never()).existsByCategoryName(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createCategories_shouldLookUpExistingNamesInChunks_whenBatchIsLarge() {
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            categories.add(new Category("Category " + i));
+        }
+
+        when(categoryRepository.findCategoryNamesIn(anySet()))
+                .thenReturn(Set.of("Category 1", "Category 2000"));
+        when(categoryRepository.saveAllAndFlush(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchItemResult<Category>> results = categoryService.createCategories(categories);
+
+        ArgumentCaptor<Set<String>> lookups = ArgumentCaptor.forClass(Set.class);
+        verify(categoryRepository, times(3)).findCategoryNamesIn(lookups.capture());
+
+        assertEquals(List.of(1000, 1000, 500), lookups.getAllValues().stream().map(Set::size).toList());
+        assertEquals(2, results.stream().filter(result -> result.getStatus() == BatchItemStatus.CONFLICT).count());
+    }
+
+    @Test
+    void createCategories_shouldThrowException_whenInputIsNull() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> categoryService.createCategories(null));
+
+        assertEquals("Categories cannot be null!", exception.getMessage());
+
+        verify(categoryRepository, never()).saveAllAndFlush(anyList());
     }
 
     @Test
     void updateCategory_shouldUpdateCategory_whenInputContainsCategory() {
 
+        Category updatedCategory = newCategory(category.getCategoryId(), "Updated");
+
         when(categoryRepository.findById(category.getCategoryId()))
                 .thenReturn(Optional.of(category));
 
-        when(categoryRepository.existsByCategoryName(category.getCategoryName()))
-                .thenReturn(false);
+        categoryService.updateCategory(updatedCategory);
 
-        categoryService.updateCategory(category);
+        assertEquals("Updated", category.getCategoryName());
 
         verify(categoryRepository).findById(category.getCategoryId());
-        verify(categoryRepository).existsByCategoryName(category.getCategoryName());
+        verify(categoryRepository, never()).existsByCategoryName(anyString());
     }
 
     @Test
@@ -129,18 +238,31 @@ public class CategoryServiceTest {
     @Test
     void updateCategory_shouldThrowException_whenInputContainsCategoryWithExistingName() {
 
-        when(categoryRepository.findById(category.getCategoryId()))
-                .thenReturn(Optional.ofNullable(category));
+        Category updatedCategory = newCategory(category.getCategoryId(), category.getCategoryName());
 
-        when(categoryRepository.existsByCategoryName(category.getCategoryName()))
-                .thenReturn(true);
+        when(categoryRepository.findById(category.getCategoryId()))
+                .thenReturn(Optional.of(category));
 
-        CategoryNameException exception = assertThrows(CategoryNameException.class, () -> categoryService.updateCategory(category));
+        CategoryNameException exception = assertThrows(CategoryNameException.class, () -> categoryService.updateCategory(updatedCategory));
 
         assertEquals("Category name " + category.getCategoryName() + " already exists!", exception.getMessage());
 
         verify(categoryRepository).findById(category.getCategoryId());
-        verify(categoryRepository).existsByCategoryName(category.getCategoryName());
+    }
+
+    @Test
+    void updateCategory_shouldThrowException_whenSnapshotIsMissingExistingName() {
+
+        Category updatedCategory = newCategory(category.getCategoryId(), "Written concurrently");
+
+        when(categoryRepository.findById(category.getCategoryId()))
+                .thenReturn(Optional.of(category));
+        when(categoryRepository.saveAndFlush(category))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "categories_category_name_key")));
+
+        CategoryNameException exception = assertThrows(CategoryNameException.class, () -> categoryService.updateCategory(updatedCategory));
+
+        assertEquals("Category name Written concurrently already exists!", exception.getMessage());
     }
 
     @Test
@@ -154,7 +276,6 @@ public class CategoryServiceTest {
         assertEquals("Category with Id " + category.getCategoryId() + " not found.", exception.getMessage());
 
         verify(categoryRepository).findById(category.getCategoryId());
-        verify(categoryRepository, never()).existsByCategoryName(null);
         verify(categoryRepository, never()).save(null);
     }
 
@@ -163,29 +284,28 @@ public class CategoryServiceTest {
 
         long categoryId = 1L;
 
-        when(categoryRepository.existsByCategoryId(categoryId))
-                .thenReturn(true);
-
-        doNothing().when(categoryRepository).deleteById(categoryId);
+        when(categoryRepository.deleteByCategoryId(categoryId))
+                .thenReturn(1);
 
         categoryService.removeById(categoryId);
 
-        verify(categoryRepository).existsByCategoryId(categoryId);
-        verify(categoryRepository).deleteById(categoryId);
+        verify(categoryRepository).deleteByCategoryId(categoryId);
+        verify(categoryRepository, never()).deleteById(categoryId);
+        verify(categoryRepository, never()).existsByCategoryId(categoryId);
     }
 
     @ParameterizedTest
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void removeById_shouldThrowException_whenInputContainsNotExistingCategoryId(long categoryId) {
 
-        when(categoryRepository.existsByCategoryId(categoryId))
-                .thenReturn(false);
+        when(categoryRepository.deleteByCategoryId(categoryId))
+                .thenReturn(0);
 
         CategoryNotFoundException exception = assertThrows(CategoryNotFoundException.class, () -> categoryService.removeById(categoryId));
 
         assertEquals("Category with Id " + categoryId + " not found.", exception.getMessage());
 
-        verify(categoryRepository).existsByCategoryId(categoryId);
+        verify(categoryRepository).deleteByCategoryId(categoryId);
         verify(categoryRepository, never()).deleteById(categoryId);
     }
 
@@ -193,16 +313,165 @@ public class CategoryServiceTest {
     @MethodSource("pageableProvider")
     void getAll_shouldReturnCategoryPage_whenInputContainsCorrectPageable(Pageable pageable) {
 
-        Page<Category> page = new PageImpl<>(List.of(category), pageable, 2);
+        Page<CategoryView> actualPage = categoryService.getAll(pageable);
+
+        assertEquals(1, actualPage.getTotalElements());
+        assertEquals(pageable.getOffset() == 0 ? List.of(categoryView) : List.of(), actualPage.getContent());
+
+        verify(categoryRepository, never()).findAll(pageable);
+    }
+
+    @Test
+    void getAll_shouldReturnSortedCategoryPage_whenInputContainsSortedPageable() {
+
+        CategoryView otherCategory = newCategoryView(2L, "Another");
+
+        when(categoryRepository.findAllViews())
+                .thenReturn(List.of(categoryView, otherCategory));
+
+        categoryService.refreshSnapshot();
+
+        Page<CategoryView> actualPage = categoryService.getAll(PageRequest.of(0, 10, Sort.by("categoryName")));
+
+        assertEquals(List.of(otherCategory, categoryView), actualPage.getContent());
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenInputContainsNotSupportedSortField() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> categoryService.getAll(PageRequest.of(0, 10, Sort.by("unknown"))));
+
+        assertEquals("Sort field unknown is not supported.", exception.getMessage());
+    }
+
+    @Test
+    void getAll_shouldReturnOnlyRequestedFields_whenInputContainsFields() {
+
+        Page<Map<String, Object>> actualPage = categoryService.getAll("categoryName", PageRequest.of(0, 10));
+
+        assertEquals(List.of(Map.of("categoryName", "Test")), actualPage.getContent());
+        assertEquals(1, actualPage.getTotalElements());
+    }
+
+    @Test
+    void getSlice_shouldThrowException_whenFieldsContainNotSupportedField() {
 
-        when(categoryRepository.findAll(pageable))
-                .thenReturn(page);
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> categoryService.getSlice("categoryId,unknown", PageRequest.of(0, 10)));
 
-        Page<Category> actualPage = categoryService.getAll(pageable);
+        assertEquals("Field unknown is not supported.", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("pageableProvider")
+    void getSlice_shouldReturnSlice_whenInputContainsCorrectPageable(Pageable pageable) {
+
+        Slice<CategoryView> actualSlice = categoryService.getSlice(pageable);
+
+        assertFalse(actualSlice.hasNext());
+        assertEquals(pageable.getOffset() == 0 ? List.of(categoryView) : List.of(), actualSlice.getContent());
+
+        verify(categoryRepository).findAllViews();
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void getApproximateCount_shouldReturnSnapshotSize() {
 
-        assertEquals(page, actualPage);
+        assertEquals(1L, categoryService.getApproximateCount());
 
-        verify(categoryRepository).findAll(pageable);
+        verify(categoryRepository).findAllViews();
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void getAll_shouldReturnWindow_whenInputContainsInitialScrollPosition() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.keyset();
+        Sort sort = Sort.by(Sort.Direction.DESC, "categoryName");
+        Sort keysetSort = sort.and(Sort.by(Sort.Direction.DESC, "categoryId"));
+
+        Window<Category> window = Window.from(List.of(category), index -> ScrollPosition.forward(Map.of("categoryId", 1L)));
+
+        when(categoryRepository.findAllBy(scrollPosition, keysetSort, Limit.of(10)))
+                .thenReturn(window);
+
+        Window<Category> actualWindow = categoryService.getAll(scrollPosition, sort, 10);
+
+        assertEquals(window, actualWindow);
+
+        verify(categoryRepository).findAllBy(scrollPosition, keysetSort, Limit.of(10));
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenInputContainsNotSupportedKeysetSortField() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> categoryService.getAll(ScrollPosition.keyset(), Sort.by("unknown"), 10));
+
+        assertEquals("Sort field unknown is not supported for cursor pagination.", exception.getMessage());
+
+        verify(categoryRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenCursorDoesNotMatchSortField() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.forward(Map.of("categoryId", 1L));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> categoryService.getAll(scrollPosition, Sort.by("categoryName"), 10));
+
+        assertEquals("Cursor does not match sort field categoryName.", exception.getMessage());
+
+        verify(categoryRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void exportAll_shouldPassEveryCategoryToConsumerWithoutQueryingDatabase() {
+
+        List<CategoryView> exported = new ArrayList<>();
+
+        categoryService.exportAll(exported::add);
+
+        assertEquals(List.of(categoryView), exported);
+
+        verify(categoryRepository).findAllViews();
+    }
+
+    @Test
+    void search_shouldReturnMatches_whenInputContainsQuery() {
+
+        when(nameSearchRepository.searchCategories("Sed", 10))
+                .thenReturn(List.of(category));
+
+        assertEquals(List.of(category), categoryService.search(" Sed ", 10));
+
+        verify(nameSearchRepository).searchCategories("Sed", 10);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", "\t"})
+    void search_shouldThrowException_whenQueryIsBlank(String query) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> categoryService.search(query, 10));
+
+        assertEquals("Search query cannot be empty.", exception.getMessage());
+
+        verifyNoInteractions(nameSearchRepository);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 101})
+    void search_shouldThrowException_whenLimitIsOutOfRange(int limit) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> categoryService.search("Sed", limit));
+
+        assertEquals("Limit must be between 1 and 100.", exception.getMessage());
+
+        verifyNoInteractions(nameSearchRepository);
     }
 
     @Test
@@ -210,28 +479,89 @@ public class CategoryServiceTest {
 
         long categoryId = 1L;
 
-        when(categoryRepository.findById(categoryId))
-                .thenReturn(Optional.ofNullable(category));
-
-        Category actualCategory = categoryService.getById(categoryId);
+        CategoryView actualCategory = categoryService.getById(categoryId);
 
         assertNotNull(actualCategory);
-        assertEquals(category, actualCategory);
+        assertEquals(categoryView, actualCategory);
 
-        verify(categoryRepository).findById(categoryId);
+        verify(categoryRepository, never()).findById(categoryId);
     }
 
     @ParameterizedTest
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void getById_shouldThrowException_whenInputContainsNotExistingCategoryId(long categoryId) {
 
-        when(categoryRepository.findById(categoryId))
-                .thenReturn(Optional.empty());
-
         CategoryNotFoundException exception = assertThrows(CategoryNotFoundException.class, () -> categoryService.getById(categoryId));
 
         assertEquals("Category with Id " + categoryId + " not found.", exception.getMessage());
 
-        verify(categoryRepository).findById(categoryId);
+        verify(categoryRepository, never()).findById(categoryId);
+    }
+
+    @Test
+    void refreshSnapshot_shouldReplaceSnapshot_whenRepositoryContentChanges() {
+
+        CategoryView otherCategory = newCategoryView(2L, "Another");
+
+        when(categoryRepository.findAllViews())
+                .thenReturn(List.of(otherCategory));
+
+        categoryService.refreshSnapshot();
+
+        assertEquals(List.of(otherCategory), categoryService.getAll());
+        assertThrows(CategoryNotFoundException.class, () -> categoryService.getById(category.getCategoryId()));
+    }
+
+    @Test
+    void refreshSnapshot_shouldRun_whenOtherReplicaInvalidatesCategories() {
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<Long>> evictor = ArgumentCaptor.forClass(Consumer.class);
+
+        verify(cacheInvalidationBus).subscribe(eq(CacheNames.CATEGORIES), evictor.capture());
+
+        CategoryView otherCategory = newCategoryView(2L, "Another");
+
+        when(categoryRepository.findAllViews())
+                .thenReturn(List.of(categoryView, otherCategory));
+
+        evictor.getValue().accept(null);
+
+        assertEquals(List.of(categoryView, otherCategory), categoryService.getAll());
+        verify(cacheInvalidationBus, never()).publish(anyString(), any());
     }
+
+    @Test
+    void getRevision_shouldUseVersionOfSnapshotCategory() {
+
+        CategoryView versionedCategory = new CategoryView(2L, "Versioned", 4L, Instant.parse("2024-01-01T00:00:00Z"));
+
+        when(categoryRepository.findAllViews())
+                .thenReturn(List.of(versionedCategory));
+
+        categoryService.refreshSnapshot();
+
+        Revision revision = categoryService.getRevision(2L);
+
+        assertEquals("4", revision.getETag());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), revision.getLastModified());
+
+        verify(categoryRepository, never()).findById(2L);
+    }
+
+    @Test
+    void getByIds_shouldReturnExistingCategoriesInRequestOrder() {
+
+        CategoryView otherCategory = newCategoryView(2L, "Another");
+
+        when(categoryRepository.findAllViews())
+                .thenReturn(List.of(categoryView, otherCategory));
+
+        categoryService.refreshSnapshot();
+
+        assertEquals(List.of(otherCategory, categoryView), categoryService.getByIds(List.of(2L, 42L, 1L)));
+
+        verify(categoryRepository, never()).findAllById(any());
+    }
+
 }
@@ -1,25 +1,44 @@
 package com.example.carrestservice.service;
 
+import com.example.carrestservice.batch.BatchItemResult;
+import com.example.carrestservice.batch.BatchItemStatus;
+import com.example.carrestservice.cache.CacheInvalidationBus;
+import com.example.carrestservice.cache.CacheNames;
 import com.example.carrestservice.entity.Manufacturer;
 import com.example.carrestservice.exception.ManufacturerNameException;
 import com.example.carrestservice.exception.ManufacturerNotFoundException;
 import com.example.carrestservice.repository.ManufacturerRepository;
+import com.example.carrestservice.repository.NameSearchRepository;
+import com.example.carrestservice.view.ManufacturerView;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,13 +53,28 @@ public class ManufacturerServiceTest {
     @Mock
     ManufacturerRepository manufacturerRepository;
 
+    @Mock
+    CacheInvalidationBus cacheInvalidationBus;
+
+    @Mock
+    NameSearchRepository nameSearchRepository;
+
     Manufacturer manufacturer;
 
+    ManufacturerView manufacturerView;
+
     @BeforeEach
     void setUp() {
         manufacturer = new Manufacturer();
         manufacturer.setManufacturerId(1L);
         manufacturer.setManufacturerName("Test");
+
+        manufacturerView = new ManufacturerView(1L, "Test", 0L, null);
+
+        when(manufacturerRepository.findAllViews())
+                .thenReturn(List.of(manufacturerView));
+
+        manufacturerService.refreshSnapshot();
     }
 
     static Stream<Pageable> pageableProvider() {
@@ -58,22 +92,47 @@ public class ManufacturerServiceTest {
         );
     }
 
+    Manufacturer newManufacturer(long manufacturerId, String manufacturerName) {
+        Manufacturer newManufacturer = new Manufacturer();
+        newManufacturer.setManufacturerId(manufacturerId);
+        newManufacturer.setManufacturerName(manufacturerName);
+        return newManufacturer;
+    }
+
+    ManufacturerView newManufacturerView(long manufacturerId, String manufacturerName) {
+        return new ManufacturerView(manufacturerId, manufacturerName, 0L, null);
+    }
+
     @Test
     void createManufacturer_shouldReturnManufacturer_whenInputContainsManufacturer() {
 
-        when(manufacturerRepository.existsByManufacturerName(manufacturer.getManufacturerName()))
-                .thenReturn(false);
+        Manufacturer createdManufacturer = newManufacturer(2L, "New");
 
-        when(manufacturerRepository.save(manufacturer))
-                .thenReturn(manufacturer);
+        when(manufacturerRepository.saveAndFlush(createdManufacturer))
+                .thenReturn(createdManufacturer);
 
-        Manufacturer actualManufacturer = manufacturerService.createManufacturer(manufacturer);
+        Manufacturer actualManufacturer = manufacturerService.createManufacturer(createdManufacturer);
 
         assertNotNull(actualManufacturer);
-        assertEquals(manufacturer, actualManufacturer);
+        assertEquals(createdManufacturer, actualManufacturer);
+
+        verify(manufacturerRepository).saveAndFlush(createdManufacturer);
+        verify(manufacturerRepository, times(2)).findAllViews();
+        verify(manufacturerRepository, never()).existsByManufacturerName(anyString());
+    }
+
+    @Test
+    void createManufacturer_shouldTellOtherReplicasToRefreshSnapshot() {
+
+        Manufacturer createdManufacturer = newManufacturer(2L, "New");
 
-        verify(manufacturerRepository).existsByManufacturerName(manufacturer.getManufacturerName());
-        verify(manufacturerRepository).save(manufacturer);
+        when(manufacturerRepository.saveAndFlush(createdManufacturer))
+                .thenReturn(createdManufacturer);
+
+        manufacturerService.createManufacturer(createdManufacturer);
+
+        verify(cacheInvalidationBus).subscribe(eq(CacheNames.MANUFACTURERS), any());
+        verify(cacheInvalidationBus).publish(CacheNames.MANUFACTURERS, null);
     }
 
     @Test
@@ -83,37 +142,74 @@ public class ManufacturerServiceTest {
 
         assertEquals("Manufacturer cannot be null!", exception.getMessage());
 
-        verify(manufacturerRepository, never()).existsByManufacturerName(null);
-        verify(manufacturerRepository, never()).save(null);
+        verify(manufacturerRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void createManufacturer_shouldThrowException_whenInputContainsManufacturerWithExistingName() {
 
-        when(manufacturerRepository.existsByManufacturerName(manufacturer.getManufacturerName()))
-                .thenReturn(true);
+        Manufacturer createdManufacturer = newManufacturer(2L, manufacturer.getManufacturerName());
 
-        ManufacturerNameException exception = assertThrows(ManufacturerNameException.class, () -> manufacturerService.createManufacturer(manufacturer));
+        when(manufacturerRepository.saveAndFlush(createdManufacturer))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "manufacturers_manufacturer_name_key")));
+
+        ManufacturerNameException exception = assertThrows(ManufacturerNameException.class, () -> manufacturerService.createManufacturer(createdManufacturer));
 
         assertEquals("Manufacturer name " + manufacturer.getManufacturerName() + " already exists!", exception.getMessage());
 
-        verify(manufacturerRepository).existsByManufacturerName(manufacturer.getManufacturerName());
-        verify(manufacturerRepository, never()).save(manufacturer);
+        verify(manufacturerRepository, never()).existsByManufacturerName(anyString());
+        verify(manufacturerRepository).saveAndFlush(createdManufacturer);
+        verify(manufacturerRepository).findAllViews();
+    }
+
+    @Test
+    void createManufacturers_shouldReturnPerItemResults_whenInputContainsDuplicates() {
+
+        Manufacturer existingManufacturer = new Manufacturer("Toyota");
+        Manufacturer newManufacturer = new Manufacturer("Honda");
+        Manufacturer duplicateManufacturer = new Manufacturer("Honda");
+
+        when(manufacturerRepository.findManufacturerNamesIn(Set.of("Toyota", "Honda")))
+                .thenReturn(Set.of("Toyota"));
+        when(manufacturerRepository.saveAllAndFlush(List.of(newManufacturer)))
+                .thenReturn(List.of(newManufacturer));
+
+        List<BatchItemResult<Manufacturer>> results = manufacturerService.createManufacturers(Arrays.asList(existingManufacturer, newManufacturer, duplicateManufacturer, null));
+
+        assertEquals(List.of(BatchItemStatus.CONFLICT, BatchItemStatus.CREATED, BatchItemStatus.CONFLICT, BatchItemStatus.INVALID),
+                results.stream().map(BatchItemResult::getStatus).toList());
+        assertEquals("Manufacturer name Toyota already exists!", results.get(0).getMessage());
+        assertSame(newManufacturer, results.get(1).getItem());
+        assertEquals("Manufacturer cannot be null!", results.get(3).getMessage());
+
+        verify(manufacturerRepository).findManufacturerNamesIn(Set.of("Toyota", "Honda"));
+        verify(manufacturerRepository, never()).existsByManufacturerName(anyString());
+    }
+
+    @Test
+    void createManufacturers_shouldThrowException_whenInputIsNull() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> manufacturerService.createManufacturers(null));
+
+        assertEquals("Manufacturers cannot be null!", exception.getMessage());
+
+        verify(manufacturerRepository, never()).saveAllAndFlush(anyList());
     }
 
     @Test
     void updateManufacturer_shouldUpdateManufacturer_whenInputContainsManufacturer() {
 
+        Manufacturer updatedManufacturer = newManufacturer(manufacturer.getManufacturerId(), "Updated");
+
         when(manufacturerRepository.findById(manufacturer.getManufacturerId()))
                 .thenReturn(Optional.of(manufacturer));
 
-        when(manufacturerRepository.existsByManufacturerName(manufacturer.getManufacturerName()))
-                .thenReturn(false);
+        manufacturerService.updateManufacturer(updatedManufacturer);
 
-        manufacturerService.updateManufacturer(manufacturer);
+        assertEquals("Updated", manufacturer.getManufacturerName());
 
         verify(manufacturerRepository).findById(manufacturer.getManufacturerId());
-        verify(manufacturerRepository).existsByManufacturerName(manufacturer.getManufacturerName());
+        verify(manufacturerRepository, never()).existsByManufacturerName(anyString());
     }
 
     @Test
@@ -129,18 +225,31 @@ public class ManufacturerServiceTest {
     @Test
     void updateManufacturer_shouldThrowException_whenInputContainsManufacturerWithExistingName() {
 
-        when(manufacturerRepository.findById(manufacturer.getManufacturerId()))
-                .thenReturn(Optional.ofNullable(manufacturer));
+        Manufacturer updatedManufacturer = newManufacturer(manufacturer.getManufacturerId(), manufacturer.getManufacturerName());
 
-        when(manufacturerRepository.existsByManufacturerName(manufacturer.getManufacturerName()))
-                .thenReturn(true);
+        when(manufacturerRepository.findById(manufacturer.getManufacturerId()))
+                .thenReturn(Optional.of(manufacturer));
 
-        ManufacturerNameException exception = assertThrows(ManufacturerNameException.class, () -> manufacturerService.updateManufacturer(manufacturer));
+        ManufacturerNameException exception = assertThrows(ManufacturerNameException.class, () -> manufacturerService.updateManufacturer(updatedManufacturer));
 
         assertEquals("Manufacturer name " + manufacturer.getManufacturerName() + " already exists!", exception.getMessage());
 
         verify(manufacturerRepository).findById(manufacturer.getManufacturerId());
-        verify(manufacturerRepository).existsByManufacturerName(manufacturer.getManufacturerName());
+    }
+
+    @Test
+    void updateManufacturer_shouldThrowException_whenSnapshotIsMissingExistingName() {
+
+        Manufacturer updatedManufacturer = newManufacturer(manufacturer.getManufacturerId(), "Written concurrently");
+
+        when(manufacturerRepository.findById(manufacturer.getManufacturerId()))
+                .thenReturn(Optional.of(manufacturer));
+        when(manufacturerRepository.saveAndFlush(manufacturer))
+                .thenThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key", new SQLException(), "manufacturers_manufacturer_name_key")));
+
+        ManufacturerNameException exception = assertThrows(ManufacturerNameException.class, () -> manufacturerService.updateManufacturer(updatedManufacturer));
+
+        assertEquals("Manufacturer name Written concurrently already exists!", exception.getMessage());
     }
 
     @Test
@@ -154,7 +263,6 @@ public class ManufacturerServiceTest {
         assertEquals("Manufacturer with Id " + manufacturer.getManufacturerId() + " not found.", exception.getMessage());
 
         verify(manufacturerRepository).findById(manufacturer.getManufacturerId());
-        verify(manufacturerRepository, never()).existsByManufacturerName(null);
         verify(manufacturerRepository, never()).save(null);
     }
 
@@ -163,29 +271,28 @@ public class ManufacturerServiceTest {
 
         long manufacturerId = 1L;
 
-        when(manufacturerRepository.existsByManufacturerId(manufacturerId))
-                .thenReturn(true);
-
-        doNothing().when(manufacturerRepository).deleteById(manufacturerId);
+        when(manufacturerRepository.deleteByManufacturerId(manufacturerId))
+                .thenReturn(1);
 
         manufacturerService.removeById(manufacturerId);
 
-        verify(manufacturerRepository).existsByManufacturerId(manufacturerId);
-        verify(manufacturerRepository).deleteById(manufacturerId);
+        verify(manufacturerRepository).deleteByManufacturerId(manufacturerId);
+        verify(manufacturerRepository, never()).deleteById(manufacturerId);
+        verify(manufacturerRepository, never()).existsByManufacturerId(manufacturerId);
     }
 
     @ParameterizedTest
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void removeById_shouldThrowException_whenInputContainsNotExistingManufacturerId(long manufacturerId) {
 
-        when(manufacturerRepository.existsByManufacturerId(manufacturerId))
-                .thenReturn(false);
+        when(manufacturerRepository.deleteByManufacturerId(manufacturerId))
+                .thenReturn(0);
 
         ManufacturerNotFoundException exception = assertThrows(ManufacturerNotFoundException.class, () -> manufacturerService.removeById(manufacturerId));
 
         assertEquals("Manufacturer with Id " + manufacturerId + " not found.", exception.getMessage());
 
-        verify(manufacturerRepository).existsByManufacturerId(manufacturerId);
+        verify(manufacturerRepository).deleteByManufacturerId(manufacturerId);
         verify(manufacturerRepository, never()).deleteById(manufacturerId);
     }
 
@@ -193,16 +300,147 @@ public class ManufacturerServiceTest {
     @MethodSource("pageableProvider")
     void getAll_shouldReturnManufacturerPage_whenInputContainsCorrectPageable(Pageable pageable) {
 
-        Page<Manufacturer> page = new PageImpl<>(List.of(manufacturer), pageable, 2);
+        Page<ManufacturerView> actualPage = manufacturerService.getAll(pageable);
+
+        assertEquals(1, actualPage.getTotalElements());
+        assertEquals(pageable.getOffset() == 0 ? List.of(manufacturerView) : List.of(), actualPage.getContent());
+
+        verify(manufacturerRepository, never()).findAll(pageable);
+    }
+
+    @Test
+    void getAll_shouldReturnSortedManufacturerPage_whenInputContainsSortedPageable() {
+
+        ManufacturerView otherManufacturer = newManufacturerView(2L, "Another");
+
+        when(manufacturerRepository.findAllViews())
+                .thenReturn(List.of(manufacturerView, otherManufacturer));
+
+        manufacturerService.refreshSnapshot();
+
+        Page<ManufacturerView> actualPage = manufacturerService.getAll(PageRequest.of(0, 10, Sort.by("manufacturerName")));
+
+        assertEquals(List.of(otherManufacturer, manufacturerView), actualPage.getContent());
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenInputContainsNotSupportedSortField() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> manufacturerService.getAll(PageRequest.of(0, 10, Sort.by("unknown"))));
+
+        assertEquals("Sort field unknown is not supported.", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @MethodSource("pageableProvider")
+    void getSlice_shouldReturnSlice_whenInputContainsCorrectPageable(Pageable pageable) {
+
+        Slice<ManufacturerView> actualSlice = manufacturerService.getSlice(pageable);
 
-        when(manufacturerRepository.findAll(pageable))
-                .thenReturn(page);
+        assertFalse(actualSlice.hasNext());
+        assertEquals(pageable.getOffset() == 0 ? List.of(manufacturerView) : List.of(), actualSlice.getContent());
 
-        Page<Manufacturer> actualPage = manufacturerService.getAll(pageable);
+        verify(manufacturerRepository).findAllViews();
+        verifyNoMoreInteractions(manufacturerRepository);
+    }
+
+    @Test
+    void getApproximateCount_shouldReturnSnapshotSize() {
+
+        assertEquals(1L, manufacturerService.getApproximateCount());
+
+        verify(manufacturerRepository).findAllViews();
+        verifyNoMoreInteractions(manufacturerRepository);
+    }
+
+    @Test
+    void getAll_shouldReturnWindow_whenInputContainsInitialScrollPosition() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.keyset();
+        Sort sort = Sort.by(Sort.Direction.DESC, "manufacturerName");
+        Sort keysetSort = sort.and(Sort.by(Sort.Direction.DESC, "manufacturerId"));
+
+        Window<Manufacturer> window = Window.from(List.of(manufacturer), index -> ScrollPosition.forward(Map.of("manufacturerId", 1L)));
+
+        when(manufacturerRepository.findAllBy(scrollPosition, keysetSort, Limit.of(10)))
+                .thenReturn(window);
+
+        Window<Manufacturer> actualWindow = manufacturerService.getAll(scrollPosition, sort, 10);
+
+        assertEquals(window, actualWindow);
+
+        verify(manufacturerRepository).findAllBy(scrollPosition, keysetSort, Limit.of(10));
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenInputContainsNotSupportedKeysetSortField() {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> manufacturerService.getAll(ScrollPosition.keyset(), Sort.by("unknown"), 10));
 
-        assertEquals(page, actualPage);
+        assertEquals("Sort field unknown is not supported for cursor pagination.", exception.getMessage());
 
-        verify(manufacturerRepository).findAll(pageable);
+        verify(manufacturerRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void getAll_shouldThrowException_whenCursorDoesNotMatchSortField() {
+
+        KeysetScrollPosition scrollPosition = ScrollPosition.forward(Map.of("manufacturerId", 1L));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> manufacturerService.getAll(scrollPosition, Sort.by("manufacturerName"), 10));
+
+        assertEquals("Cursor does not match sort field manufacturerName.", exception.getMessage());
+
+        verify(manufacturerRepository, never()).findAllBy(any(), any(), any());
+    }
+
+    @Test
+    void exportAll_shouldPassEveryManufacturerToConsumerWithoutQueryingDatabase() {
+
+        List<ManufacturerView> exported = new ArrayList<>();
+
+        manufacturerService.exportAll(exported::add);
+
+        assertEquals(List.of(manufacturerView), exported);
+
+        verify(manufacturerRepository).findAllViews();
+    }
+
+    @Test
+    void search_shouldReturnMatches_whenInputContainsQuery() {
+
+        when(nameSearchRepository.searchManufacturers("Toy", 10))
+                .thenReturn(List.of(manufacturer));
+
+        assertEquals(List.of(manufacturer), manufacturerService.search(" Toy ", 10));
+
+        verify(nameSearchRepository).searchManufacturers("Toy", 10);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", "\t"})
+    void search_shouldThrowException_whenQueryIsBlank(String query) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> manufacturerService.search(query, 10));
+
+        assertEquals("Search query cannot be empty.", exception.getMessage());
+
+        verifyNoInteractions(nameSearchRepository);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 101})
+    void search_shouldThrowException_whenLimitIsOutOfRange(int limit) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> manufacturerService.search("Toy", limit));
+
+        assertEquals("Limit must be between 1 and 100.", exception.getMessage());
+
+        verifyNoInteractions(nameSearchRepository);
     }
 
     @Test
@@ -210,28 +448,55 @@ public class ManufacturerServiceTest {
 
         long manufacturerId = 1L;
 
-        when(manufacturerRepository.findById(manufacturerId))
-                .thenReturn(Optional.ofNullable(manufacturer));
-
-        Manufacturer actualManufacturer = manufacturerService.getById(manufacturerId);
+        ManufacturerView actualManufacturer = manufacturerService.getById(manufacturerId);
 
         assertNotNull(actualManufacturer);
-        assertEquals(manufacturer, actualManufacturer);
+        assertEquals(manufacturerView, actualManufacturer);
 
-        verify(manufacturerRepository).findById(manufacturerId);
+        verify(manufacturerRepository, never()).findById(manufacturerId);
     }
 
     @ParameterizedTest
     @ValueSource(longs = {11L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L})
     void getById_shouldThrowException_whenInputContainsNotExistingManufacturerId(long manufacturerId) {
 
-        when(manufacturerRepository.findById(manufacturerId))
-                .thenReturn(Optional.empty());
-
         ManufacturerNotFoundException exception = assertThrows(ManufacturerNotFoundException.class, () -> manufacturerService.getById(manufacturerId));
 
         assertEquals("Manufacturer with Id " + manufacturerId + " not found.", exception.getMessage());
 
-        verify(manufacturerRepository).findById(manufacturerId);
+        verify(manufacturerRepository, never()).findById(manufacturerId);
+    }
+
+    @Test
+    void getByIds_shouldSkipNotExistingManufacturers() {
+
+        assertEquals(List.of(manufacturerView), manufacturerService.getByIds(List.of(42L, 1L, 1L)));
+
+        verify(manufacturerRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getByIds_shouldThrowException_whenIdsContainNull() {
+
+        List<Long> manufacturerIds = Arrays.asList(1L, null);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> manufacturerService.getByIds(manufacturerIds));
+
+        assertEquals("Ids cannot contain null.", exception.getMessage());
+    }
+
+    @Test
+    void refreshSnapshot_shouldReplaceSnapshot_whenRepositoryContentChanges() {
+
+        ManufacturerView otherManufacturer = newManufacturerView(2L, "Another");
+
+        when(manufacturerRepository.findAllViews())
+                .thenReturn(List.of(otherManufacturer));
+
+        manufacturerService.refreshSnapshot();
+
+        assertEquals(List.of(otherManufacturer), manufacturerService.getAll());
+        assertThrows(ManufacturerNotFoundException.class, () -> manufacturerService.getById(manufacturer.getManufacturerId()));
     }
 }
@@ -0,0 +1,100 @@
+package com.example.carrestservice.view;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldsetTest {
+
+    static final List<String> FIELDS = List.of(
+            "carId",
+            "manufacturer.manufacturerId", "manufacturer.manufacturerName",
+            "manufactureYear",
+            "carModel.carModelId", "carModel.carModelName");
+
+    @Test
+    void parse_shouldKeepSupportedOrder_whenFieldsAreRequestedInAnyOrder() {
+
+        Fieldset fieldset = Fieldset.parse("manufactureYear, carModel.carModelName ,carId,carId", FIELDS);
+
+        assertEquals(List.of("carId", "manufactureYear", "carModel.carModelName"), fieldset.getPaths());
+    }
+
+    @Test
+    void parse_shouldSelectAllNestedFields_whenAssociationIsRequested() {
+
+        Fieldset fieldset = Fieldset.parse("manufacturer", FIELDS);
+
+        assertEquals(List.of("manufacturer.manufacturerId", "manufacturer.manufacturerName"), fieldset.getPaths());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"price", "carModel.price", "car", "carIdentifier"})
+    void parse_shouldThrowException_whenFieldIsNotSupported(String field) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Fieldset.parse(field, FIELDS));
+
+        assertEquals("Field " + field + " is not supported.", exception.getMessage());
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {" ", ",", " , "})
+    void parse_shouldThrowException_whenFieldsAreEmpty(String fields) {
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> Fieldset.parse(fields, FIELDS));
+
+        assertEquals("Fields cannot be empty.", exception.getMessage());
+    }
+
+    @Test
+    void toRow_shouldNestDottedPaths() {
+
+        Fieldset fieldset = Fieldset.parse("carId,carModel", FIELDS);
+
+        Map<String, Object> row = fieldset.toRow(path -> switch (path) {
+            case "carId" -> 1L;
+            case "carModel.carModelId" -> 10L;
+            default -> "Camry";
+        });
+
+        assertEquals(Map.of("carId", 1L, "carModel", Map.of("carModelId", 10L, "carModelName", "Camry")), row);
+    }
+
+    @Test
+    void parse_shouldSelectAssociationId_whenOnlyOtherAssociationFieldsAreRequested() {
+
+        Fieldset fieldset = Fieldset.parse("carId,carModel.carModelName", FIELDS);
+
+        assertEquals(List.of("carId", "carModel.carModelName"), fieldset.getPaths());
+        assertEquals(List.of("carId", "carModel.carModelId", "carModel.carModelName"), fieldset.getSelectedPaths());
+    }
+
+    @Test
+    void toRow_shouldRenderNull_whenAssociationIsMissing() {
+
+        Fieldset fieldset = Fieldset.parse("carId,manufacturer.manufacturerName,carModel", FIELDS);
+
+        Map<String, Object> row = fieldset.toRow(path -> switch (path) {
+            case "carId" -> 1L;
+            case "manufacturer.manufacturerId" -> 2L;
+            case "manufacturer.manufacturerName" -> "Toyota";
+            default -> null;
+        });
+
+        Map<String, Object> expectedRow = new LinkedHashMap<>();
+        expectedRow.put("carId", 1L);
+        expectedRow.put("manufacturer", Map.of("manufacturerName", "Toyota"));
+        expectedRow.put("carModel", null);
+
+        assertEquals(expectedRow, row);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.example.carrestservice.view;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RevisionTest {
+
+    @Test
+    void of_shouldTagCarWithVersionsOfCarAndReferences_andUseLatestModification() {
+
+        CarView carView = new CarView(1L, 2020, 3L, Instant.parse("2024-01-01T00:00:00Z"),
+                1L, "Toyota", 1L, Instant.parse("2024-03-01T00:00:00Z"),
+                1L, "Camry", 0L, Instant.parse("2023-01-01T00:00:00Z"),
+                1L, "Sedan", 2L, Instant.parse("2024-02-01T00:00:00Z"));
+
+        Revision revision = Revision.of(carView);
+
+        assertEquals("3-1-0-2", revision.getETag());
+        assertEquals(Instant.parse("2024-03-01T00:00:00Z"), revision.getLastModified());
+    }
+
+    @Test
+    void of_shouldTagCarWithoutCategory() {
+
+        CarView carView = new CarView(1L, 2020, 3L, Instant.parse("2024-01-01T00:00:00Z"),
+                1L, "Toyota", 1L, Instant.parse("2023-01-01T00:00:00Z"),
+                1L, "Camry", 0L, Instant.parse("2023-01-01T00:00:00Z"),
+                null, null, null, null);
+
+        Revision revision = Revision.of(carView);
+
+        assertEquals("3-1-0-null", revision.getETag());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), revision.getLastModified());
+    }
+
+    @Test
+    void of_shouldTagCarModelWithItsVersion() {
+
+        Revision revision = Revision.of(new CarModelView(1L, "Camry", 4L, Instant.parse("2024-01-01T00:00:00Z")));
+
+        assertEquals("4", revision.getETag());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), revision.getLastModified());
+    }
+
+}